@@ -0,0 +1,122 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link LineSplitter} with the splitter it replaced ({@code BoardView.split}: substrings, then
+ * entries made unique appending resets) on a full board of 15 lines. Both split every line at every update
+ * and create only the parts that changed, as the board did.
+ * <br>
+ * Run with {@code gradle jmh}, add {@code -PjmhArgs="-prof gc"} to see the allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LineSplitterBenchmark {
+    /**
+     * true if a line changes at every update (ex. a timer), false if the board stays the same.
+     */
+    @Param({"false", "true"})
+    public boolean changing;
+
+    private final String[][] frames = new String[2][BoardView.MAX_LINES];
+    private int frame = 0;
+
+    // New splitter, what the client shows
+    private final LineSplitter splitter = new LineSplitter();
+    private final String[] prefixes = new String[BoardView.MAX_LINES];
+    private final String[] entries = new String[BoardView.MAX_LINES];
+    private final String[] suffixes = new String[BoardView.MAX_LINES];
+
+    // Substring splitter, what the client shows
+    private final Set<String> shownEntries = new HashSet<>();
+    private final String[] substringPrefixes = new String[BoardView.MAX_LINES];
+    private final String[] substringRawEntries = new String[BoardView.MAX_LINES];
+    private final String[] substringEntries = new String[BoardView.MAX_LINES];
+    private final String[] substringSuffixes = new String[BoardView.MAX_LINES];
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < BoardView.MAX_LINES; i++) {
+            String line = ChatColor.YELLOW + "Line " + i + ": " + ChatColor.WHITE + "some value that is long enough";
+            frames[0][i] = line;
+            frames[1][i] = line;
+        }
+        frames[1][0] = ChatColor.YELLOW + "Timer: " + ChatColor.WHITE + "00:59";
+        frames[0][0] = ChatColor.YELLOW + "Timer: " + ChatColor.WHITE + "01:00";
+    }
+
+    private String[] next() {
+        if (changing) {
+            frame ^= 1;
+        }
+        return frames[frame];
+    }
+
+    @Benchmark
+    public void splitter(Blackhole bh) {
+        String[] frame = next();
+        for (int i = 0; i < frame.length; i++) {
+            splitter.split(frame[i], i);
+            if (!splitter.entryEquals(entries[i])) {
+                entries[i] = splitter.entry();
+            }
+            if (!splitter.prefixEquals(prefixes[i])) {
+                prefixes[i] = splitter.prefix();
+            }
+            if (!splitter.suffixEquals(suffixes[i])) {
+                suffixes[i] = splitter.suffix();
+            }
+            bh.consume(entries[i]);
+        }
+    }
+
+    @Benchmark
+    public void substrings(Blackhole bh) {
+        String[] frame = next();
+        for (int i = 0; i < frame.length; i++) {
+            String[] parts = split(frame[i]);
+            if (!parts[1].equals(substringRawEntries[i])) {
+                if (substringEntries[i] != null) {
+                    shownEntries.remove(substringEntries[i]);
+                }
+                substringRawEntries[i] = parts[1];
+                substringEntries[i] = differEntry(parts[1]);
+                shownEntries.add(substringEntries[i]);
+            }
+            if (!parts[0].equals(substringPrefixes[i]) || !parts[2].equals(substringSuffixes[i])) {
+                substringPrefixes[i] = parts[0];
+                substringSuffixes[i] = parts[2];
+            }
+            bh.consume(substringEntries[i]);
+        }
+    }
+
+    private String differEntry(String entry) {
+        while (shownEntries.contains(entry)) {
+            entry += ChatColor.RESET;
+        }
+        return entry;
+    }
+
+    private static String[] split(String line) {
+        int length = line.length();
+        int pre = Math.min(length, BoardView.MAX_PREFIX_CHARS);
+        int mid = Math.min(length, pre + BoardView.MAX_ENTRY_CHARS);
+        int suf = Math.min(length, mid + BoardView.MAX_SUFFIX_CHARS);
+        return new String[]{line.substring(0, pre), line.substring(pre, mid), line.substring(mid, suf)};
+    }
+}
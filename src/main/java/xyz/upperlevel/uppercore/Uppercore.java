@@ -3,9 +3,11 @@ package xyz.upperlevel.uppercore;
 import lombok.Getter;
 import org.bstats.Metrics;
 import org.bukkit.plugin.java.JavaPlugin;
+import xyz.upperlevel.uppercore.board.BoardManager;
 import xyz.upperlevel.uppercore.database.StorageManager;
 import xyz.upperlevel.uppercore.economy.EconomyManager;
 import xyz.upperlevel.uppercore.gui.GuiManager;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderProfilerCommand;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
 import xyz.upperlevel.uppercore.placeholder.message.MessageManager;
 import xyz.upperlevel.uppercore.script.ScriptManager;
@@ -28,6 +30,8 @@ public class Uppercore extends JavaPlugin {
     private ScriptManager scripts;
     private StorageManager storages;
 
+    private BoardManager boards;
+
     private Metrics metrics;
 
     private MessageManager messages;
@@ -47,10 +51,12 @@ public class Uppercore extends JavaPlugin {
             messages = MessageManager.load(this);
 
             PlaceholderUtil.tryHook();
+            new PlaceholderProfilerCommand().subscribe();
             EconomyManager.enable();
 
             // MANAGER
             guis = new GuiManager();
+            boards = new BoardManager();
             scripts = new ScriptManager();
             storages = new StorageManager();
 
@@ -70,6 +76,13 @@ public class Uppercore extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (boards != null)
+            boards.closeAll();
+        PlaceholderUtil.disable();
+        if (storages != null) {
+            storages.closeCaches();
+            storages.shutdown();
+        }
     }
 
     public File getFile() {
@@ -88,6 +101,10 @@ public class Uppercore extends JavaPlugin {
         return instance.guis;
     }
 
+    public static BoardManager boards() {
+        return instance.boards;
+    }
+
     public static ScriptManager scripts() {
         return instance.scripts;
     }
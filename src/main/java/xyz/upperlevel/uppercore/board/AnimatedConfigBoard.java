@@ -0,0 +1,189 @@
+package xyz.upperlevel.uppercore.board;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A board whose title and lines are {@link Animation}s.
+ * <br>
+ * The views advance their animations with {@link View#animate()} once per tick (the {@link BoardManager}
+ * does it for the boards it opens), only the title and lines whose frame changed are updated.
+ * The placeholders are refreshed every {@link #getUpdateInterval()} ticks.
+ */
+@Getter
+public class AnimatedConfigBoard implements ConfigBoard {
+    private final Animation title;
+    private final List<Animation> lines;
+    private final int updateInterval; // 0 or < 0 are considered null
+
+    public AnimatedConfigBoard(Animation title, List<Animation> lines, int updateInterval) {
+        this.title = title;
+        this.lines = lines;
+        this.updateInterval = updateInterval;
+    }
+
+    @Override
+    public String getTitle(Player holder, PlaceholderRegistry placeholderRegistry) {
+        return title.render(holder, placeholderRegistry, 0);
+    }
+
+    @Override
+    public List<String> getLines(Player holder, PlaceholderRegistry placeholderRegistry) {
+        List<String> res = new ArrayList<>(lines.size());
+        for (Animation line : lines) {
+            res.add(line.render(holder, placeholderRegistry, 0));
+        }
+        return res;
+    }
+
+    @Override
+    public Collection<String> getTitlePlaceholderTokens() {
+        return title.getPlaceholderTokens();
+    }
+
+    @Override
+    public Collection<String> getLinesPlaceholderTokens() {
+        Set<String> res = new HashSet<>();
+        for (Animation line : lines) {
+            Collection<String> tokens = line.getPlaceholderTokens();
+            if (tokens == null)
+                return null;
+            res.addAll(tokens);
+        }
+        return res;
+    }
+
+    public boolean needUpdate() {
+        return updateInterval > 0;
+    }
+
+    @Override
+    public BoardView create(Player player, PlaceholderRegistry placeholderRegistry) {
+        BoardView view = new View(player, this, placeholderRegistry);
+        view.update();
+        return view;
+    }
+
+    /**
+     * Loads a board from the configuration, the title and every line are loaded as {@link Animation}.
+     *
+     * @param config the configuration where to load the board
+     * @return the board created
+     */
+    public static AnimatedConfigBoard deserialize(Config config) {
+        try {
+            Collection<?> rawLines = config.getCollection("lines", Collections.emptyList());
+            List<Animation> lines = new ArrayList<>(rawLines.size());
+            for (Object raw : rawLines) {
+                lines.add(Animation.deserialize(raw));
+            }
+            return new AnimatedConfigBoard(
+                    Animation.deserialize(config.getRequired("title")),
+                    lines,
+                    config.getInt("updateInterval", -1)
+            );
+        } catch (InvalidConfigException e) {
+            e.addLocation("in board");
+            throw e;
+        }
+    }
+
+    public static class View extends BoardView {
+        private final AnimatedConfigBoard board;
+        private final PlaceholderRegistry placeholderRegistry;
+        private volatile long tick = 0;
+        private int titleFrame;
+        private final int[] lineFrames;
+        // The lines shown, replaced (not modified) when they change as they can be computed off the main thread,
+        // null until the lines are first updated
+        private volatile String[] rendered;
+
+        public View(Player player, AnimatedConfigBoard board, PlaceholderRegistry placeholderRegistry) {
+            super(player);
+            this.board = board;
+            this.placeholderRegistry = placeholderRegistry;
+            this.lineFrames = new int[board.lines.size()];
+        }
+
+        public View(Player player, AnimatedConfigBoard board, PlaceholderRegistry placeholderRegistry, BoardBackend backend) {
+            super(player, backend);
+            this.board = board;
+            this.placeholderRegistry = placeholderRegistry;
+            this.lineFrames = new int[board.lines.size()];
+        }
+
+        /**
+         * Updates the board only when its placeholders change, see {@link BoardView#watch(Collection, Collection, PlaceholderRegistry)}.
+         *
+         * @return false if the placeholders cannot be watched
+         */
+        public boolean watch() {
+            return watch(board.getTitlePlaceholderTokens(), board.getLinesPlaceholderTokens(), placeholderRegistry);
+        }
+
+        @Override
+        public String getTitle() {
+            return board.title.render(getHolder(), placeholderRegistry, board.title.frame(tick));
+        }
+
+        @Override
+        public List<String> getLines() {
+            long tick = this.tick;
+            String[] res = new String[board.lines.size()];
+            for (int i = 0; i < res.length; i++) {
+                Animation line = board.lines.get(i);
+                res[i] = line.render(getHolder(), placeholderRegistry, line.frame(tick));
+            }
+            rendered = res;
+            return Arrays.asList(res);
+        }
+
+        /**
+         * Moves the animations to the next tick, only the title and the lines whose frame changed are updated.
+         */
+        public void animate() {
+            long tick = ++this.tick;
+            if (rendered == null) {
+                // Never updated (ex. opened without create), everything is drawn at the current frames
+                titleFrame = board.title.frame(tick);
+                for (int i = 0; i < lineFrames.length; i++) {
+                    lineFrames[i] = board.lines.get(i).frame(tick);
+                }
+                update();
+                return;
+            }
+            int frame = board.title.frame(tick);
+            if (frame != titleFrame) {
+                titleFrame = frame;
+                updateTitle(board.title.render(getHolder(), placeholderRegistry, frame));
+            }
+            String[] res = null;
+            for (int i = 0; i < lineFrames.length; i++) {
+                Animation line = board.lines.get(i);
+                frame = line.frame(tick);
+                if (frame != lineFrames[i]) {
+                    lineFrames[i] = frame;
+                    if (res == null) {
+                        res = rendered.clone();
+                    }
+                    res[i] = line.render(getHolder(), placeholderRegistry, frame);
+                }
+            }
+            if (res != null) {
+                rendered = res;
+                updateLines(Arrays.asList(res));
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package xyz.upperlevel.uppercore.board;
+
+import lombok.Getter;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
+import xyz.upperlevel.uppercore.util.TextUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A text that changes every few ticks (a board title or line), made of a list of frames.
+ * <br>
+ * The frames without placeholders are computed once when the animation is created, so showing them
+ * only costs choosing the frame for the current tick.
+ * <br>
+ * In the configuration an animation is either a string (not animated) or a section:
+ * <pre>
+ * frames: ["&amp;aHello", "&amp;bHello"]  # shows every frame in order
+ * interval: 5                      # ticks for every frame, 1 by default
+ *
+ * scroll: "&amp;eWelcome to the server!"  # scrolls the text
+ * width: 16
+ *
+ * sweep: "ARENA"                   # moves a highlighted letter through the text
+ * color: "&amp;6"
+ * highlight: "&amp;e"
+ * </pre>
+ */
+public class Animation {
+    private static final String SCROLL_GAP = "   ";
+
+    private final List<PlaceholderValue<String>> frames;
+    private final String[] precomputed; // null where the frame has placeholders
+    @Getter
+    private final int interval; // Ticks for every frame
+
+    public Animation(List<PlaceholderValue<String>> frames, int interval) {
+        if (frames.isEmpty()) {
+            throw new IllegalArgumentException("An animation needs at least one frame");
+        }
+        this.frames = frames;
+        this.interval = Math.max(interval, 1);
+        this.precomputed = new String[frames.size()];
+        for (int i = 0; i < precomputed.length; i++) {
+            PlaceholderValue<String> frame = frames.get(i);
+            if (!frame.hasPlaceholders()) {
+                precomputed[i] = frame.resolve(null, null);
+            }
+        }
+    }
+
+    public int size() {
+        return frames.size();
+    }
+
+    public boolean isAnimated() {
+        return frames.size() > 1;
+    }
+
+    /**
+     * Returns the index of the frame shown at the given tick.
+     *
+     * @param tick the ticks since the animation started
+     * @return the frame index
+     */
+    public int frame(long tick) {
+        return frames.size() == 1 ? 0 : (int) ((tick / interval) % frames.size());
+    }
+
+    /**
+     * Returns the text of the frame, placeholders are resolved only if the frame has any.
+     *
+     * @param player the player that executes the placeholders
+     * @param local  the local placeholders
+     * @param frame  the frame index
+     * @return the frame text
+     */
+    public String render(Player player, PlaceholderRegistry local, int frame) {
+        String res = precomputed[frame];
+        return res != null ? res : frames.get(frame).resolve(player, local);
+    }
+
+    /**
+     * Returns the placeholder tokens used by any frame, null if they aren't known.
+     *
+     * @return the placeholder tokens
+     */
+    public Collection<String> getPlaceholderTokens() {
+        Set<String> res = new HashSet<>();
+        for (PlaceholderValue<String> frame : frames) {
+            Collection<String> tokens = frame.getPlaceholderTokens();
+            if (tokens == null)
+                return null;
+            res.addAll(tokens);
+        }
+        return res;
+    }
+
+    /**
+     * Creates a text that never changes.
+     *
+     * @param text the text
+     * @return the animation with a single frame
+     */
+    public static Animation fixed(PlaceholderValue<String> text) {
+        return new Animation(Collections.singletonList(text), 1);
+    }
+
+    /**
+     * Creates an animation that shows the frames in order.
+     *
+     * @param frames   the frames, they can have placeholders and colour codes
+     * @param interval the ticks for every frame
+     * @return the animation
+     */
+    public static Animation frames(List<String> frames, int interval) {
+        List<PlaceholderValue<String>> res = new ArrayList<>(frames.size());
+        for (String frame : frames) {
+            res.add(PlaceholderValue.stringValue(frame));
+        }
+        return new Animation(res, interval);
+    }
+
+    /**
+     * Creates an animation that scrolls the text from right to left, looping it.
+     *
+     * @param text     the text, it can have colour codes but no placeholders
+     * @param width    the visible chars
+     * @param interval the ticks for every char
+     * @return the animation
+     */
+    public static Animation scroll(String text, int width, int interval) {
+        String loop = TextUtil.translatePlain(text) + ChatColor.RESET + SCROLL_GAP;
+        List<Integer> visible = new ArrayList<>();
+        for (int i = 0; i < loop.length(); i++) {
+            if (loop.charAt(i) == ChatColor.COLOR_CHAR) {
+                i++; // The code isn't visible too
+            } else {
+                visible.add(i);
+            }
+        }
+        if (visible.size() - SCROLL_GAP.length() <= width) {
+            return fixed(PlaceholderValue.fake(TextUtil.translatePlain(text)));
+        }
+        List<PlaceholderValue<String>> frames = new ArrayList<>(visible.size());
+        for (int start : visible) {
+            StringBuilder frame = new StringBuilder(ChatColor.getLastColors(loop.substring(0, start)));
+            int shown = 0;
+            for (int i = start; shown < width; i = (i + 1) % loop.length()) {
+                if (i == 0) {
+                    frame.append(ChatColor.RESET); // Colours restart with the text
+                }
+                char c = loop.charAt(i);
+                frame.append(c);
+                if (c == ChatColor.COLOR_CHAR) {
+                    i = (i + 1) % loop.length();
+                    frame.append(loop.charAt(i));
+                } else {
+                    shown++;
+                }
+            }
+            frames.add(PlaceholderValue.fake(frame.toString()));
+        }
+        return new Animation(frames, interval);
+    }
+
+    /**
+     * Creates an animation that highlights a letter of the text at a time, from left to right.
+     *
+     * @param text      the text, colour codes are removed
+     * @param color     the colour of the text
+     * @param highlight the colour of the highlighted letter
+     * @param interval  the ticks for every letter
+     * @return the animation
+     */
+    public static Animation sweep(String text, String color, String highlight, int interval) {
+        text = ChatColor.stripColor(TextUtil.translatePlain(text));
+        color = TextUtil.translatePlain(color);
+        highlight = TextUtil.translatePlain(highlight);
+        List<PlaceholderValue<String>> frames = new ArrayList<>(text.length() + 1);
+        frames.add(PlaceholderValue.fake(color + text));
+        for (int i = 0; i < text.length(); i++) {
+            frames.add(PlaceholderValue.fake(color + text.substring(0, i) + highlight + text.charAt(i) + color + text.substring(i + 1)));
+        }
+        return new Animation(frames, interval);
+    }
+
+    /**
+     * Loads an animation from the configuration, see {@link Animation}.
+     *
+     * @param raw the configuration value, either a string or a section
+     * @return the animation loaded
+     */
+    @SuppressWarnings("unchecked")
+    public static Animation deserialize(Object raw) {
+        if (raw instanceof Map) {
+            Config config = Config.wrap((Map<String, Object>) raw);
+            int interval = config.getInt("interval", 1);
+            if (config.has("frames")) {
+                return frames(config.getStringListRequired("frames"), interval);
+            } else if (config.has("scroll")) {
+                return scroll(config.getStringRequired("scroll"), config.getIntRequired("width"), interval);
+            } else if (config.has("sweep")) {
+                return sweep(config.getStringRequired("sweep"), config.getString("color", "&f"), config.getString("highlight", "&e"), interval);
+            }
+            throw new InvalidConfigException("Unknown animation, use one of: frames, scroll, sweep");
+        }
+        if (raw == null) {
+            throw new InvalidConfigException("Empty animation");
+        }
+        return fixed(PlaceholderValue.stringValue(raw.toString()));
+    }
+}
@@ -0,0 +1,88 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A board whose title and lines are computed off the main thread, from a snapshot of the data they need.
+ * <br>
+ * The snapshot is taken on the main thread (where the Bukkit API can be used), the title and the lines are
+ * then built from it on the placeholder workers (see {@link BoardView#updateAsync(boolean, boolean)}), so slow
+ * sources such as database stats never stall the tick.
+ *
+ * @param <S> the type of the snapshot
+ */
+public interface AsyncBoard<S> {
+    /**
+     * Takes the data needed by the board, called on the main thread.
+     *
+     * @param holder the player
+     * @return the snapshot, it must not change after being returned
+     */
+    S snapshot(Player holder);
+
+    /**
+     * Gets the title of the board, called off the main thread.
+     *
+     * @param holder   the player
+     * @param snapshot the snapshot taken for this update
+     * @return the title
+     */
+    String getTitle(Player holder, S snapshot);
+
+    /**
+     * Gets the lines of the board, called off the main thread.
+     *
+     * @param holder   the player
+     * @param snapshot the snapshot taken for this update
+     * @return the lines
+     */
+    List<String> getLines(Player holder, S snapshot);
+
+    /**
+     * Shows the board to the player, its content is computed asynchronously.
+     *
+     * @param player the player
+     */
+    default BoardView create(Player player) {
+        BoardView view = new View<>(player, this);
+        view.updateAsync();
+        return view;
+    }
+
+    class View<S> extends BoardView {
+        private final AsyncBoard<S> board;
+
+        public View(Player player, AsyncBoard<S> board) {
+            super(player);
+            this.board = board;
+        }
+
+        public View(Player player, AsyncBoard<S> board, BoardBackend backend) {
+            super(player, backend);
+            this.board = board;
+        }
+
+        @Override
+        public String getTitle() {
+            return board.getTitle(getHolder(), board.snapshot(getHolder()));
+        }
+
+        @Override
+        public List<String> getLines() {
+            return board.getLines(getHolder(), board.snapshot(getHolder()));
+        }
+
+        @Override
+        protected Supplier<Frame> prepare(boolean title, boolean lines) {
+            Player holder = getHolder();
+            S snapshot = board.snapshot(holder);
+            return () -> new Frame(
+                    title ? board.getTitle(holder, snapshot) : null,
+                    lines ? board.getLines(holder, snapshot) : null
+            );
+        }
+    }
+}
@@ -27,7 +27,9 @@ public interface Board {
      * @param player the player
      */
     default BoardView create(Player player) {
-        return new View(player, this);
+        BoardView view = new View(player, this);
+        view.update();
+        return view;
     }
 
     class View extends BoardView {
@@ -38,6 +40,11 @@ public interface Board {
             this.board = board;
         }
 
+        public View(Player player, Board board, BoardBackend backend) {
+            super(player, backend);
+            this.board = board;
+        }
+
         @Override
         public String getTitle() {
             return board.getTitle(getHolder());
@@ -0,0 +1,66 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.entity.Player;
+
+/**
+ * What a {@link BoardView} uses to show its sidebar to the holder.
+ * <br>
+ * Every line is drawn by a team (holding the prefix and suffix) with a single entry, whose score is the
+ * line position. The view only calls the backend for the parts that changed.
+ */
+public interface BoardBackend {
+
+    /**
+     * Shows the sidebar to the holder.
+     */
+    void show();
+
+    void setTitle(String title);
+
+    /**
+     * Adds the entry to the line team and shows it with the given score.
+     *
+     * @param line  the line index
+     * @param entry the entry, unique across the lines
+     * @param score the score of the entry
+     */
+    void addEntry(int line, String entry, int score);
+
+    void setScore(String entry, int score);
+
+    void removeEntry(int line, String entry);
+
+    /**
+     * Sets the prefix and the suffix of the line team, called when at least one of them changed.
+     *
+     * @param line   the line index
+     * @param prefix the new prefix
+     * @param suffix the new suffix
+     */
+    void setAffixes(int line, String prefix, String suffix);
+
+    /**
+     * Removes the sidebar from the holder, the backend cannot be used anymore.
+     */
+    void destroy();
+
+    /**
+     * Creates a backend backed by a Bukkit scoreboard, the holder's scoreboard is replaced.
+     *
+     * @param holder the player that sees the board
+     * @return the backend
+     */
+    static BoardBackend bukkit(Player holder) {
+        return new BukkitBoardBackend(holder);
+    }
+
+    /**
+     * Creates a backend that sends the scoreboard packets directly, no scoreboard is kept on the server.
+     *
+     * @param holder the player that sees the board
+     * @return the backend
+     */
+    static BoardBackend packets(Player holder) {
+        return new PacketBoardBackend(holder);
+    }
+}
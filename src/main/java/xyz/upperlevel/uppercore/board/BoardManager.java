@@ -0,0 +1,224 @@
+package xyz.upperlevel.uppercore.board;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import xyz.upperlevel.uppercore.Uppercore;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.task.UpdaterTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Owns the {@link BoardView} of every player and refreshes them all from a single task.
+ * <br>
+ * Every board refreshes its title and its lines with separate intervals (a shorter interval is a higher
+ * priority). The boards are spread across the ticks: 200 boards refreshing every 20 ticks cost about 10
+ * refreshes per tick instead of 200 in the same tick.
+ */
+public class BoardManager implements Listener {
+    private final Map<Player, Entry> boards = new HashMap<>();
+    // Same entries of the map, iterated every tick
+    private final List<Entry> entries = new ArrayList<>();
+    private final UpdaterTask task = new UpdaterTask(1, this::tick);
+
+    @Getter
+    private long tick = 0;
+    private int nextSlot = 0;
+    private boolean ticking = false;
+    private boolean removed = false;
+
+    public BoardManager() {
+        Bukkit.getPluginManager().registerEvents(this, Uppercore.get());
+    }
+
+    /**
+     * Shows the board to the player, replacing (and destroying) the previous one.
+     *
+     * @param player        the player
+     * @param view          the board view of the player
+     * @param titleInterval the ticks between every title refresh, 0 or less to never refresh it
+     * @param linesInterval the ticks between every lines refresh, 0 or less to never refresh them
+     * @return the entry of the board, that can be used to change the intervals
+     */
+    public Entry open(Player player, BoardView view, int titleInterval, int linesInterval) {
+        close(player);
+        Entry entry = new Entry(view, nextSlot++, titleInterval, linesInterval);
+        boards.put(player, entry);
+        entries.add(entry);
+        if (!task.isStarted()) {
+            task.start();
+        }
+        return entry;
+    }
+
+    /**
+     * Shows the board to the player with the same interval for the title and the lines.
+     *
+     * @param player   the player
+     * @param view     the board view of the player
+     * @param interval the ticks between every refresh, 0 or less to never refresh it
+     * @return the entry of the board
+     */
+    public Entry open(Player player, BoardView view, int interval) {
+        return open(player, view, interval, interval);
+    }
+
+    /**
+     * Shows the board to the player, refreshing it only when its placeholders change if they can be watched,
+     * otherwise every {@link SimpleConfigBoard#getUpdateInterval()} ticks.
+     *
+     * @param player the player
+     * @param board  the board to show
+     * @param local  the local placeholders, may be null
+     * @return the entry of the board
+     */
+    public Entry open(Player player, SimpleConfigBoard board, PlaceholderRegistry local) {
+        ConfigBoard.View view = (ConfigBoard.View) board.create(player, local);
+        int interval = !view.watch() && board.needUpdate() ? board.getUpdateInterval() : 0;
+        return open(player, view, interval);
+    }
+
+    /**
+     * Shows the animated board to the player, its animations advance every tick while the placeholders are
+     * refreshed when they change if they can be watched, otherwise every
+     * {@link AnimatedConfigBoard#getUpdateInterval()} ticks.
+     *
+     * @param player the player
+     * @param board  the board to show
+     * @param local  the local placeholders, may be null
+     * @return the entry of the board
+     */
+    public Entry open(Player player, AnimatedConfigBoard board, PlaceholderRegistry local) {
+        AnimatedConfigBoard.View view = (AnimatedConfigBoard.View) board.create(player, local);
+        int interval = !view.watch() && board.needUpdate() ? board.getUpdateInterval() : 0;
+        return open(player, view, interval);
+    }
+
+    /**
+     * Removes the board from the player and destroys it.
+     *
+     * @param player the player
+     * @return true if the player had a board
+     */
+    public boolean close(Player player) {
+        Entry entry = boards.remove(player);
+        if (entry == null) {
+            return false;
+        }
+        entry.closed = true;
+        entry.view.destroy();
+        if (ticking) {
+            removed = true; // Removed at the end of the tick
+        } else {
+            entries.remove(entry);
+            stopIfEmpty();
+        }
+        return true;
+    }
+
+    public void closeAll() {
+        for (Player player : new ArrayList<>(boards.keySet())) {
+            close(player);
+        }
+    }
+
+    public BoardView get(Player player) {
+        Entry entry = boards.get(player);
+        return entry != null ? entry.view : null;
+    }
+
+    public Entry getEntry(Player player) {
+        return boards.get(player);
+    }
+
+    private void tick() {
+        tick++;
+        ticking = true;
+        try {
+            // Boards opened during the tick are appended, they're refreshed too
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if (!entry.closed) {
+                    entry.tick(tick);
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+        if (removed) {
+            removed = false;
+            entries.removeIf(entry -> entry.closed);
+            stopIfEmpty();
+        }
+    }
+
+    private void stopIfEmpty() {
+        if (entries.isEmpty()) {
+            task.stop();
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        close(e.getPlayer());
+    }
+
+    public static class Entry {
+        @Getter
+        private final BoardView view;
+        private final AnimatedConfigBoard.View animated; // Null if the board isn't animated
+        private final int slot;
+        @Getter
+        @Setter
+        private int titleInterval, linesInterval;
+        /**
+         * When true the board is computed off the main thread, see {@link BoardView#updateAsync(boolean, boolean)}.
+         */
+        @Getter
+        @Setter
+        private boolean async = false;
+        private boolean closed = false;
+
+        private Entry(BoardView view, int slot, int titleInterval, int linesInterval) {
+            this.view = view;
+            this.animated = view instanceof AnimatedConfigBoard.View ? (AnimatedConfigBoard.View) view : null;
+            this.slot = slot;
+            this.titleInterval = titleInterval;
+            this.linesInterval = linesInterval;
+        }
+
+        private void tick(long tick) {
+            try {
+                if (animated != null) {
+                    animated.animate();
+                }
+                // The slot moves the refresh of every board to a different tick
+                boolean title = titleInterval > 0 && (tick + slot) % titleInterval == 0;
+                boolean lines = linesInterval > 0 && (tick + slot) % linesInterval == 0;
+                if (async) {
+                    if (title || lines) {
+                        view.updateAsync(title, lines);
+                    }
+                    return;
+                }
+                if (title) {
+                    view.updateTitle();
+                }
+                if (lines) {
+                    view.updateLines();
+                }
+            } catch (RuntimeException e) {
+                Uppercore.logger().log(Level.SEVERE, "Error while updating the board of " + view.getHolder().getName(), e);
+            }
+        }
+    }
+}
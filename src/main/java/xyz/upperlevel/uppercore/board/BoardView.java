@@ -1,17 +1,21 @@
 package xyz.upperlevel.uppercore.board;
 
 import lombok.Getter;
+import lombok.Setter;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.scoreboard.DisplaySlot;
-import org.bukkit.scoreboard.Objective;
-import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
+import xyz.upperlevel.uppercore.Uppercore;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderWatcher;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderWatcher.Subscription;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 // TODO Optimized empty line initialization
 public abstract class BoardView {
@@ -21,29 +25,52 @@ public abstract class BoardView {
     public static final int MAX_ENTRY_CHARS = 40; // >= 1.8
     public static final int MAX_SUFFIX_CHARS = 16;
 
+    /**
+     * The backend used by the views created without one, {@link BoardBackend#bukkit(Player)} by default.
+     */
+    @Getter
+    @Setter
+    private static Function<Player, BoardBackend> defaultBackend = BoardBackend::bukkit;
+
     @Getter
     private final Player holder;
 
-    private Scoreboard scoreboard;
-    private Objective objective;
+    @Getter
+    private final BoardBackend backend;
+    private String title;
     private final Line[] lines = new Line[MAX_LINES];
-    private Set<String> entries = new HashSet<>();
-
-    private void createScoreboard() {
-        scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
-        objective = scoreboard.registerNewObjective("scoreboard", "dummy");
-        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+    private final LineSplitter splitter = new LineSplitter();
+    private Subscription titleSubscription, linesSubscription;
+    private CompletableFuture<Void> pending;
+    private boolean pendingTitle, pendingLines; // The parts computed by the pending update
+    private CompletableFuture<Void> next; // Queued after the pending update for the parts it doesn't compute
+    private boolean nextTitle, nextLines;
+    private volatile boolean destroyed = false;
 
-        for (int position = 0; position < MAX_LINES; position++) {
-            lines[position] = new Line(position);
-        }
+    /**
+     * Creates the board and shows it to the holder, it stays empty until the first {@link #update()}.
+     * <br>
+     * The update can't happen here as subclasses aren't initialized yet when this constructor runs.
+     *
+     * @param holder the player that sees the board
+     */
+    public BoardView(Player holder) {
+        this(holder, defaultBackend.apply(holder));
     }
 
-    public BoardView(Player holder) {
+    /**
+     * Creates the board with the given backend and shows it to the holder, see {@link #BoardView(Player)}.
+     *
+     * @param holder  the player that sees the board
+     * @param backend the backend that draws the board
+     */
+    public BoardView(Player holder, BoardBackend backend) {
         this.holder = holder;
+        this.backend = backend;
 
-        createScoreboard();
-        update();
+        for (int position = 0; position < MAX_LINES; position++) {
+            lines[position] = new Line(position);
+        }
 
         // Firstly open the board
         ensureOpened();
@@ -54,28 +81,169 @@ public abstract class BoardView {
     public abstract List<String> getLines();
 
     public void ensureOpened() {
-        holder.setScoreboard(scoreboard);
+        backend.show();
     }
 
     /**
-     * Update just the board title.
+     * Stops updating the board and removes it from the holder.
+     */
+    public void destroy() {
+        destroyed = true;
+        unwatch();
+        backend.destroy();
+    }
+
+    /**
+     * Update just the board title, nothing is sent if it didn't change.
      */
     public void updateTitle() {
-        objective.setDisplayName(getTitle());
+        updateTitle(getTitle());
     }
 
     /**
-     * Update just the board lines.
+     * Shows the given title, nothing is sent if it didn't change.
+     *
+     * @param title the title to show
+     */
+    protected void updateTitle(String title) {
+        if (!title.equals(this.title)) {
+            this.title = title;
+            backend.setTitle(title);
+        }
+    }
+
+    /**
+     * Update just the board lines, only the parts of the lines that changed are sent.
      */
     public void updateLines() {
-        List<String> lines = getLines();
-        int pos = 0;
-        for (; pos < lines.size() && pos < MAX_LINES; pos++) {
+        updateLines(getLines());
+    }
+
+    /**
+     * Shows the given lines, only the parts of the lines that changed are sent.
+     *
+     * @param lines the lines to show
+     */
+    protected void updateLines(List<String> lines) {
+        int size = Math.min(lines.size(), MAX_LINES);
+        for (int pos = size; pos < MAX_LINES; pos++) {
+            this.lines[pos].clear();
+        }
+        for (int pos = 0; pos < size; pos++) {
             this.lines[pos].update(lines.get(pos), lines.size() - pos);
         }
-        for (; pos < MAX_LINES; pos++) {
+    }
+
+    private void applyLines(Frame frame) {
+        int size = Math.min(frame.size, MAX_LINES);
+        for (int pos = size; pos < MAX_LINES; pos++) {
             this.lines[pos].clear();
         }
+        for (int pos = 0; pos < size; pos++) {
+            this.lines[pos].update(frame.lines[pos], frame.size - pos);
+        }
+    }
+
+    /**
+     * Computes the title and the lines on the placeholder workers, only the changes are then applied on the
+     * main thread, see {@link #updateAsync(boolean, boolean)}.
+     *
+     * @return the future completed once the changes are applied
+     */
+    public CompletableFuture<Void> updateAsync() {
+        return updateAsync(true, true);
+    }
+
+    /**
+     * Computes the title and/or the lines on the placeholder workers, the main thread only applies what
+     * changed.
+     * <br>
+     * The work done off the main thread is the one returned by {@link #prepare(boolean, boolean)}, so the
+     * board must be safe to compute from there. While an update is running no other one is started: if it
+     * computes the parts asked its future is returned, otherwise a single update of all the parts asked in the
+     * meantime starts once it's done. Must be called on the main thread.
+     *
+     * @param title true to update the title
+     * @param lines true to update the lines
+     * @return the future completed once the changes are applied
+     */
+    public CompletableFuture<Void> updateAsync(boolean title, boolean lines) {
+        if (pending == null || pending.isDone()) {
+            return start(title, lines);
+        }
+        if ((!title || pendingTitle) && (!lines || pendingLines)) {
+            return pending;
+        }
+        if (next == null) {
+            next = new CompletableFuture<>();
+            pending.whenComplete((res, e) -> runSync(this::startNext));
+        }
+        nextTitle |= title;
+        nextLines |= lines;
+        return next;
+    }
+
+    private CompletableFuture<Void> start(boolean title, boolean lines) {
+        Supplier<Frame> render = prepare(title, lines);
+        pendingTitle = title;
+        pendingLines = lines;
+        pending = CompletableFuture.supplyAsync(render, PlaceholderUtil.getExecutor())
+                .thenAcceptAsync(this::apply, BoardView::runSync)
+                .whenComplete((res, e) -> {
+                    if (e != null) {
+                        Uppercore.logger().log(Level.SEVERE, "Error while updating the board of " + holder.getName(), e);
+                    }
+                });
+        return pending;
+    }
+
+    private void startNext() {
+        CompletableFuture<Void> res = next;
+        boolean title = nextTitle, lines = nextLines;
+        next = null;
+        nextTitle = false;
+        nextLines = false;
+        start(title, lines).whenComplete((r, e) -> {
+            if (e != null) {
+                res.completeExceptionally(e);
+            } else {
+                res.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Called on the main thread, returns the computation of the new title and lines that runs on the workers.
+     * <br>
+     * By default it calls {@link #getTitle()} and {@link #getLines()} from the workers, override it to
+     * take a snapshot of the data on the main thread first.
+     *
+     * @param title true to compute the title
+     * @param lines true to compute the lines
+     * @return the computation of the frame
+     */
+    protected Supplier<Frame> prepare(boolean title, boolean lines) {
+        return () -> new Frame(title ? getTitle() : null, lines ? getLines() : null);
+    }
+
+    void apply(Frame frame) {
+        if (destroyed) {
+            return;
+        }
+        if (frame.title != null) {
+            updateTitle(frame.title);
+        }
+        if (frame.lines != null) {
+            applyLines(frame);
+        }
+    }
+
+    private static void runSync(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(Uppercore.get(), task);
+        }
     }
 
     /**
@@ -86,80 +254,120 @@ public abstract class BoardView {
         updateLines();
     }
 
-    private class Line {
-        private Team team;
-        private String prefix, entry, suffix;
-
-        public Line(int position) {
-            team = scoreboard.registerNewTeam("line#" + position);
+    /**
+     * Updates the title and the lines only when their placeholders change.
+     *
+     * @param titleTokens the placeholder tokens used by the title
+     * @param lineTokens  the placeholder tokens used by the lines
+     * @param local       the local placeholders, may be null
+     * @return false if the placeholders cannot be watched, the board has then to be updated on a timer
+     */
+    public boolean watch(Collection<String> titleTokens, Collection<String> lineTokens, PlaceholderRegistry local) {
+        unwatch();
+        PlaceholderWatcher watcher = PlaceholderUtil.getWatcher();
+        if (!watcher.isWatchable(titleTokens, local) || !watcher.isWatchable(lineTokens, local))
+            return false;
+        titleSubscription = watcher.subscribe(holder, titleTokens, local, this::updateTitle);
+        linesSubscription = watcher.subscribe(holder, lineTokens, local, this::updateLines);
+        if (titleSubscription == null || linesSubscription == null) {
+            unwatch();
+            return false;
         }
+        return true;
+    }
 
-        // The entry cannot be equal to other entries
-        private String differEntry(String entry, int position) {
-            while (entries.contains(entry)) {
-                entry += ChatColor.RESET;
-            }
-            if (entry.length() > MAX_ENTRY_CHARS) {
-                throw new IllegalArgumentException("Too much chars for registrable \"" + entry + "\" at: \"" + position + "\"");
-            }
-            return entry;
+    /**
+     * Stops updating the board when its placeholders change.
+     */
+    public void unwatch() {
+        if (titleSubscription != null) {
+            titleSubscription.cancel();
+            titleSubscription = null;
         }
+        if (linesSubscription != null) {
+            linesSubscription.cancel();
+            linesSubscription = null;
+        }
+    }
 
-        private void split(String line, StringBuffer prefix, StringBuffer entry, StringBuffer suffix) {
-            if (!line.isEmpty()) {
-                int pre = Math.min(line.length(), MAX_PREFIX_CHARS);
-                prefix.append(line.substring(0, pre));
-                line = line.substring(pre, line.length());
-
-                if (!line.isEmpty()) {
-                    int mid = Math.min(line.length(), MAX_ENTRY_CHARS);
-                    entry.append(line.substring(0, mid));
-                    line = line.substring(mid, line.length());
+    private class Line {
+        private final int index;
+        // What the client is currently showing, nothing is sent when the new values are the same
+        private String prefix, entry, suffix;
+        private String line; // The line shown, the others are its parts
+        private int score;
 
-                    if (!line.isEmpty()) {
-                        int suf = Math.min(line.length(), MAX_SUFFIX_CHARS);
-                        suffix.append(line.substring(0, suf));
-                    }
-                }
-            }
+        public Line(int index) {
+            this.index = index;
         }
 
         public void update(String line, int position) {
-            if (line != null) {
-                StringBuffer
-                        prefixBfr = new StringBuffer(),
-                        entryBfr = new StringBuffer(),
-                        suffixBfr = new StringBuffer();
-                split(line, prefixBfr, entryBfr, suffixBfr);
-                // Entry
-                if (entry != null) {
+            if (line == null) {
+                clear();
+                return;
+            }
+            if (entry == null || !line.equals(this.line)) {
+                splitter.split(line, index);
+                this.line = line;
+                // Entry, replaced only if its text changed (the client would redraw the line)
+                if (entry == null || !splitter.entryEquals(entry)) {
                     clear(); // Remove previous entry
+                    entry = splitter.entry();
+                    backend.addEntry(index, entry, position);
+                    score = position;
                 }
-                this.entry = differEntry(entryBfr.toString(), position);
-                entries.add(entry);
-                team.addEntry(entry);
-                objective.getScore(entry).setScore(position);
-
-                // Prefix
-                prefix = prefixBfr.toString();
-                team.setPrefix(prefix);
-
-                // Suffix
-                suffix = suffixBfr.toString();
-                team.setSuffix(suffix);
-            } else {
-                clear();
+                // Prefix and suffix
+                boolean samePrefix = splitter.prefixEquals(prefix);
+                boolean sameSuffix = splitter.suffixEquals(suffix);
+                if (!samePrefix || !sameSuffix) {
+                    if (!samePrefix) {
+                        prefix = splitter.prefix();
+                    }
+                    if (!sameSuffix) {
+                        suffix = splitter.suffix();
+                    }
+                    backend.setAffixes(index, prefix, suffix);
+                }
+            }
+            if (score != position) {
+                backend.setScore(entry, position);
+                score = position;
             }
         }
 
         public void clear() {
             if (entry != null) {
-                entries.remove(entry);
-                scoreboard.resetScores(entry);
+                backend.removeEntry(index, entry);
                 entry = null;
+                line = null;
+            }
+            // The team keeps its prefix and suffix, they're sent again only if they change
+        }
+    }
+
+    /**
+     * The title and the lines of the board computed off the main thread.
+     */
+    protected static final class Frame {
+        private final String title;
+        private final int size;
+        private final String[] lines;
+
+        public Frame(String title, List<String> lines) {
+            this.title = title;
+            if (lines == null) {
+                size = 0;
+                this.lines = null;
+                return;
             }
-            prefix = null;
-            suffix = null;
+            size = lines.size();
+            this.lines = lines.subList(0, Math.min(size, MAX_LINES)).toArray(new String[0]);
+        }
+
+        Frame(String title, int size, String[] lines) {
+            this.title = title;
+            this.size = size;
+            this.lines = lines;
         }
     }
 }
@@ -0,0 +1,76 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_LINES;
+
+/**
+ * A backend that gives the holder its own Bukkit {@link Scoreboard}.
+ */
+public class BukkitBoardBackend implements BoardBackend {
+    private final Player holder;
+    private final Scoreboard scoreboard;
+    private final Objective objective;
+    private final Team[] teams = new Team[MAX_LINES];
+
+    public BukkitBoardBackend(Player holder) {
+        this.holder = holder;
+        scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
+        objective = scoreboard.registerNewObjective("scoreboard", "dummy");
+        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+
+        for (int position = 0; position < MAX_LINES; position++) {
+            teams[position] = scoreboard.registerNewTeam("line#" + position);
+        }
+    }
+
+    @Override
+    public void show() {
+        holder.setScoreboard(scoreboard);
+    }
+
+    @Override
+    public void setTitle(String title) {
+        objective.setDisplayName(title);
+    }
+
+    @Override
+    public void addEntry(int line, String entry, int score) {
+        teams[line].addEntry(entry);
+        objective.getScore(entry).setScore(score);
+    }
+
+    @Override
+    public void setScore(String entry, int score) {
+        objective.getScore(entry).setScore(score);
+    }
+
+    @Override
+    public void removeEntry(int line, String entry) {
+        scoreboard.resetScores(entry);
+    }
+
+    @Override
+    public void setAffixes(int line, String prefix, String suffix) {
+        // Every call sends the whole team again
+        Team team = teams[line];
+        if (!prefix.equals(team.getPrefix())) {
+            team.setPrefix(prefix);
+        }
+        if (!suffix.equals(team.getSuffix())) {
+            team.setSuffix(suffix);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (holder.getScoreboard() == scoreboard) {
+            holder.setScoreboard(Bukkit.getScoreboardManager().getMainScoreboard());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package xyz.upperlevel.uppercore.board;
 import org.bukkit.entity.Player;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ConfigBoard {
@@ -24,8 +25,28 @@ public interface ConfigBoard {
      */
     List<String> getLines(Player holder, PlaceholderRegistry placeholderRegistry);
 
+    /**
+     * Gets the placeholder tokens used by the title, null if they aren't known.
+     *
+     * @return the title placeholder tokens
+     */
+    default Collection<String> getTitlePlaceholderTokens() {
+        return null;
+    }
+
+    /**
+     * Gets the placeholder tokens used by the lines, null if they aren't known.
+     *
+     * @return the lines placeholder tokens
+     */
+    default Collection<String> getLinesPlaceholderTokens() {
+        return null;
+    }
+
     default BoardView create(Player player, PlaceholderRegistry placeholderRegistry) {
-        return new View(player, this, placeholderRegistry);
+        BoardView view = new View(player, this, placeholderRegistry);
+        view.update();
+        return view;
     }
 
     class View extends BoardView {
@@ -38,6 +59,21 @@ public interface ConfigBoard {
             this.placeholderRegistry = placeholderRegistry;
         }
 
+        public View(Player player, ConfigBoard configBoard, PlaceholderRegistry placeholderRegistry, BoardBackend backend) {
+            super(player, backend);
+            this.configBoard = configBoard;
+            this.placeholderRegistry = placeholderRegistry;
+        }
+
+        /**
+         * Updates the board only when its placeholders change, see {@link BoardView#watch(Collection, Collection, PlaceholderRegistry)}.
+         *
+         * @return false if the placeholders cannot be watched
+         */
+        public boolean watch() {
+            return watch(configBoard.getTitlePlaceholderTokens(), configBoard.getLinesPlaceholderTokens(), placeholderRegistry);
+        }
+
         @Override
         public String getTitle() {
             return configBoard.getTitle(getHolder(), placeholderRegistry);
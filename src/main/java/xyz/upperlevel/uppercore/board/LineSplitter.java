@@ -0,0 +1,139 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.ChatColor;
+
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_ENTRY_CHARS;
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_LINES;
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_PREFIX_CHARS;
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_SUFFIX_CHARS;
+
+/**
+ * Splits the board lines in prefix, entry and suffix reusing the same buffers, the parts are compared with
+ * what the client shows and a string is created only for the parts that changed.
+ * <br>
+ * Every entry starts with the key of its line (an invisible colour code, different for every line) so it's
+ * always unique, followed by the colours the prefix ends with to keep the line looking as a single text.
+ * A colour code is never split between two parts.
+ */
+final class LineSplitter {
+    private static final char COLOR_CHAR = ChatColor.COLOR_CHAR;
+    private static final String[] KEYS = new String[MAX_LINES];
+
+    static {
+        for (int i = 0; i < MAX_LINES; i++) {
+            KEYS[i] = "" + COLOR_CHAR + Character.forDigit(i, 16) + COLOR_CHAR + 'r';
+        }
+    }
+
+    private char[] line = new char[MAX_PREFIX_CHARS + MAX_ENTRY_CHARS + MAX_SUFFIX_CHARS];
+    private int length;
+    private int prefixEnd, entryEnd, suffixEnd;
+    private final char[] entry = new char[MAX_ENTRY_CHARS];
+    private int entryLength;
+
+    /**
+     * Splits the line, the parts can then be compared and read until the next split.
+     *
+     * @param line  the line to split
+     * @param index the index of the line in the board, it chooses the entry key
+     */
+    public void split(String line, int index) {
+        length = line.length();
+        if (this.line.length < length) {
+            this.line = new char[length];
+        }
+        line.getChars(0, length, this.line, 0);
+
+        prefixEnd = cut(0, MAX_PREFIX_CHARS);
+
+        String key = KEYS[index];
+        key.getChars(0, key.length(), entry, 0);
+        entryLength = key.length();
+        appendLastColors(prefixEnd);
+        entryEnd = cut(prefixEnd, MAX_ENTRY_CHARS - entryLength);
+        System.arraycopy(this.line, prefixEnd, entry, entryLength, entryEnd - prefixEnd);
+        entryLength += entryEnd - prefixEnd;
+
+        suffixEnd = cut(entryEnd, MAX_SUFFIX_CHARS);
+    }
+
+    // The end of the part that starts at "from" and is at most "max" chars long, without splitting a colour code
+    private int cut(int from, int max) {
+        int end = Math.min(length, from + max);
+        if (end > from && end < length && line[end - 1] == COLOR_CHAR) {
+            end--;
+        }
+        return end;
+    }
+
+    // Same as ChatColor.getLastColors: the last colour (or reset) and the formats that follow it
+    private void appendLastColors(int end) {
+        int start = 0;
+        for (int i = end - 2; i >= 0; i--) {
+            if (line[i] == COLOR_CHAR && isColorOrReset(line[i + 1])) {
+                start = i;
+                break;
+            }
+        }
+        for (int i = start; i < end - 1; i++) {
+            if (line[i] == COLOR_CHAR && isCode(line[i + 1])) {
+                entry[entryLength++] = COLOR_CHAR;
+                entry[entryLength++] = Character.toLowerCase(line[++i]);
+            }
+        }
+    }
+
+    private static boolean isColorOrReset(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == 'r' || c == 'R';
+    }
+
+    private static boolean isCode(char c) {
+        return isColorOrReset(c) || (c >= 'k' && c <= 'o') || (c >= 'K' && c <= 'O');
+    }
+
+    public boolean prefixEquals(String prefix) {
+        return regionEquals(prefix, line, 0, prefixEnd);
+    }
+
+    public boolean entryEquals(String entry) {
+        return regionEquals(entry, this.entry, 0, entryLength);
+    }
+
+    public boolean suffixEquals(String suffix) {
+        return regionEquals(suffix, line, entryEnd, suffixEnd - entryEnd);
+    }
+
+    public String prefix() {
+        return new String(line, 0, prefixEnd);
+    }
+
+    public String entry() {
+        return new String(entry, 0, entryLength);
+    }
+
+    public String suffix() {
+        return new String(line, entryEnd, suffixEnd - entryEnd);
+    }
+
+    private static boolean regionEquals(String str, char[] chars, int from, int length) {
+        if (str == null || str.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(i) != chars[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the key that every entry of the line starts with.
+     *
+     * @param index the index of the line in the board
+     * @return the entry key
+     */
+    public static String key(int index) {
+        return KEYS[index];
+    }
+}
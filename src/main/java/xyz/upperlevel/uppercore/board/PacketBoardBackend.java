@@ -0,0 +1,105 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.entity.Player;
+import xyz.upperlevel.uppercore.nms.impl.ScoreboardNms;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_LINES;
+import static xyz.upperlevel.uppercore.nms.impl.ScoreboardNms.*;
+import static xyz.upperlevel.uppercore.nms.impl.entity.PlayerNms.sendPacket;
+
+/**
+ * A backend that talks to the client with scoreboard packets, no scoreboard, objective or team is kept on the server.
+ * <br>
+ * The objective and the teams only exist on the holder's client, their names are unique to the backend so that
+ * they cannot clash with the ones of the player's Bukkit scoreboard or of other boards.
+ */
+public class PacketBoardBackend implements BoardBackend {
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final Player holder;
+    private final String objective;
+    private final String teamPrefix;
+    private final boolean[] teams = new boolean[MAX_LINES]; // Teams already created on the client
+    private String title = "";
+    private boolean shown = false;
+
+    public PacketBoardBackend(Player holder) {
+        this.holder = holder;
+        String id = Integer.toHexString(nextId.getAndIncrement());
+        this.objective = "upb" + id; // Max 16 chars
+        this.teamPrefix = "upb" + id + '.';
+    }
+
+    @Override
+    public void show() {
+        if (!shown) {
+            shown = true;
+            sendPacket(holder, objectivePacket(objective, title, OBJECTIVE_CREATE));
+        }
+        // Sent again as another scoreboard could have taken the sidebar
+        sendPacket(holder, displayPacket(SLOT_SIDEBAR, objective));
+    }
+
+    @Override
+    public void setTitle(String title) {
+        // The client would disconnect, Bukkit's objectives have the same check
+        if (title.length() > BoardView.MAX_TITLE_CHARS) {
+            throw new IllegalArgumentException("Board title longer than " + BoardView.MAX_TITLE_CHARS + " chars: \"" + title + "\"");
+        }
+        this.title = title;
+        if (shown) {
+            sendPacket(holder, objectivePacket(objective, title, OBJECTIVE_UPDATE));
+        }
+    }
+
+    @Override
+    public void addEntry(int line, String entry, int score) {
+        if (teams[line]) {
+            sendPacket(holder, teamPacket(teamPrefix + line, null, null, Collections.singleton(entry), TEAM_ADD_ENTRIES));
+        } else {
+            teams[line] = true;
+            sendPacket(holder, teamPacket(teamPrefix + line, "", "", Collections.singleton(entry), TEAM_CREATE));
+        }
+        sendPacket(holder, scorePacket(entry, objective, score, false));
+    }
+
+    @Override
+    public void setScore(String entry, int score) {
+        sendPacket(holder, scorePacket(entry, objective, score, false));
+    }
+
+    @Override
+    public void removeEntry(int line, String entry) {
+        sendPacket(holder, scorePacket(entry, objective, 0, true));
+    }
+
+    @Override
+    public void setAffixes(int line, String prefix, String suffix) {
+        if (teams[line]) {
+            sendPacket(holder, teamPacket(teamPrefix + line, prefix, suffix, null, TEAM_UPDATE));
+        } else {
+            teams[line] = true;
+            sendPacket(holder, teamPacket(teamPrefix + line, prefix, suffix, Collections.emptyList(), TEAM_CREATE));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (!holder.isOnline()) {
+            return;
+        }
+        if (shown) {
+            sendPacket(holder, objectivePacket(objective, title, OBJECTIVE_REMOVE));
+        }
+        for (int line = 0; line < MAX_LINES; line++) {
+            if (teams[line]) {
+                sendPacket(holder, teamPacket(teamPrefix + line, null, null, null, TEAM_REMOVE));
+                teams[line] = false;
+            }
+        }
+        shown = false;
+    }
+}
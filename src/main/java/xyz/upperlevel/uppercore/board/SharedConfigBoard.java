@@ -0,0 +1,290 @@
+package xyz.upperlevel.uppercore.board;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import xyz.upperlevel.uppercore.Uppercore;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
+import xyz.upperlevel.uppercore.task.UpdaterTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import static xyz.upperlevel.uppercore.board.BoardView.MAX_LINES;
+
+/**
+ * A board whose lines are either global (the same for every player) or personal.
+ * <br>
+ * When the board is {@link #share(PlaceholderRegistry) shared} between many players (ex. an arena) the global
+ * lines are resolved once per refresh and reused for every viewer, only the personal lines are
+ * resolved for each of them.
+ * <br>
+ * In the configuration a line is either a string (personal, or global when it has no placeholders) or a
+ * section with the {@code text} and the {@code global} flag:
+ * <pre>
+ * lines:
+ * - "&amp;eArena"
+ * - text: "Alive: %arena_alive%"
+ *   global: true
+ * - "Kills: %player_kills%"
+ * </pre>
+ */
+@Getter
+public class SharedConfigBoard implements ConfigBoard {
+    private final Line title;
+    private final List<Line> lines;
+    private final int updateInterval; // 0 or < 0 are considered null
+
+    public SharedConfigBoard(Line title, List<Line> lines, int updateInterval) {
+        this.title = title;
+        this.lines = lines;
+        this.updateInterval = updateInterval;
+    }
+
+    @Override
+    public String getTitle(Player holder, PlaceholderRegistry placeholderRegistry) {
+        return title.text.resolve(holder, placeholderRegistry);
+    }
+
+    @Override
+    public List<String> getLines(Player holder, PlaceholderRegistry placeholderRegistry) {
+        List<PlaceholderValue<String>> values = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            values.add(line.text);
+        }
+        return PlaceholderUtil.resolveAll(holder, placeholderRegistry, values);
+    }
+
+    @Override
+    public Collection<String> getTitlePlaceholderTokens() {
+        return title.text.getPlaceholderTokens();
+    }
+
+    @Override
+    public Collection<String> getLinesPlaceholderTokens() {
+        Set<String> res = new HashSet<>();
+        for (Line line : lines) {
+            Collection<String> tokens = line.text.getPlaceholderTokens();
+            if (tokens == null)
+                return null;
+            res.addAll(tokens);
+        }
+        return res;
+    }
+
+    public boolean needUpdate() {
+        return updateInterval > 0;
+    }
+
+    /**
+     * Creates a group of players that see this board, see {@link Shared}.
+     *
+     * @param placeholders the placeholders used by the global lines and by the viewers without local ones, may be null
+     * @return the group, without any viewer
+     */
+    public Shared share(PlaceholderRegistry placeholders) {
+        return new Shared(this, placeholders != null ? placeholders : PlaceholderUtil.getRegistry());
+    }
+
+    /**
+     * Loads a board from the configuration.
+     *
+     * @param config the configuration where to load the board
+     * @return the board created
+     */
+    public static SharedConfigBoard deserialize(Config config) {
+        try {
+            Collection<?> rawLines = config.getCollection("lines", Collections.emptyList());
+            List<Line> lines = new ArrayList<>(rawLines.size());
+            for (Object raw : rawLines) {
+                lines.add(Line.deserialize(raw));
+            }
+            return new SharedConfigBoard(
+                    Line.deserialize(config.getRequired("title")),
+                    lines,
+                    config.getInt("updateInterval", -1)
+            );
+        } catch (InvalidConfigException e) {
+            e.addLocation("in board");
+            throw e;
+        }
+    }
+
+    @Getter
+    public static class Line {
+        private final PlaceholderValue<String> text;
+        /**
+         * True if the line is the same for every player, its placeholders must not depend on the player.
+         */
+        private final boolean global;
+
+        public Line(PlaceholderValue<String> text, boolean global) {
+            this.text = text;
+            this.global = global;
+        }
+
+        @SuppressWarnings("unchecked")
+        public static Line deserialize(Object raw) {
+            if (raw instanceof Map) {
+                Config config = Config.wrap((Map<String, Object>) raw);
+                return new Line(config.getMessageStrRequired("text"), config.getBool("global", false));
+            }
+            if (raw == null) {
+                throw new InvalidConfigException("Empty board line");
+            }
+            PlaceholderValue<String> text = PlaceholderUtil.process(raw.toString());
+            return new Line(text, !text.hasPlaceholders());
+        }
+    }
+
+    /**
+     * The players that see the same {@link SharedConfigBoard}.
+     * <br>
+     * Every {@link #update()} resolves the global lines once (with the shared placeholders), then every
+     * viewer resolves only its personal lines and receives the changes.
+     * The lines are still split and sent per viewer, as every player has its own objective and connection.
+     * The viewers that quit are removed by the next update, or with {@link #removeViewer(Player)}.
+     */
+    public static class Shared {
+        @Getter
+        private final SharedConfigBoard board;
+        @Getter
+        private final PlaceholderRegistry placeholders;
+        private final Map<Player, Viewer> viewers = new LinkedHashMap<>();
+        private final UpdaterTask task;
+
+        private Shared(SharedConfigBoard board, PlaceholderRegistry placeholders) {
+            this.board = board;
+            this.placeholders = placeholders;
+            this.task = new UpdaterTask(board.updateInterval, this::update);
+        }
+
+        /**
+         * Shows the board to the player, the group refreshes it every {@link SharedConfigBoard#getUpdateInterval()}
+         * ticks while it has viewers.
+         *
+         * @param player the player
+         * @param local  the placeholders used by the personal lines of the player, may be null
+         * @return the view of the player
+         */
+        public BoardView addViewer(Player player, PlaceholderRegistry local) {
+            removeViewer(player);
+            Viewer viewer = new Viewer(player, board, local != null ? local : placeholders);
+            viewers.put(player, viewer);
+            viewer.update();
+            if (board.needUpdate() && !task.isStarted()) {
+                task.start(false);
+            }
+            return viewer;
+        }
+
+        /**
+         * Removes the board from the player and destroys it.
+         *
+         * @param player the player
+         * @return true if the player was a viewer
+         */
+        public boolean removeViewer(Player player) {
+            Viewer viewer = viewers.remove(player);
+            if (viewer == null) {
+                return false;
+            }
+            viewer.destroy();
+            if (viewers.isEmpty()) {
+                task.stop();
+            }
+            return true;
+        }
+
+        public BoardView getViewer(Player player) {
+            return viewers.get(player);
+        }
+
+        public Collection<Player> getViewers() {
+            return Collections.unmodifiableSet(viewers.keySet());
+        }
+
+        public void destroy() {
+            task.stop();
+            for (Viewer viewer : viewers.values()) {
+                viewer.destroy();
+            }
+            viewers.clear();
+        }
+
+        /**
+         * Refreshes the board of every viewer.
+         */
+        public void update() {
+            // The players that quit are dropped, the group doesn't listen to the quit events
+            viewers.values().removeIf(viewer -> {
+                if (viewer.getHolder().isOnline()) {
+                    return false;
+                }
+                viewer.destroy();
+                return true;
+            });
+            if (viewers.isEmpty()) {
+                task.stop();
+                return;
+            }
+            // Global placeholders don't depend on the player but some still need one to be resolved
+            Player any = viewers.keySet().iterator().next();
+            List<Line> lines = board.lines;
+            int count = Math.min(lines.size(), MAX_LINES);
+
+            String sharedTitle = board.title.global ? board.title.text.resolve(any, placeholders) : null;
+            String[] shared = new String[count];
+            List<PlaceholderValue<String>> global = new ArrayList<>();
+            List<PlaceholderValue<String>> personal = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Line line = lines.get(i);
+                (line.global ? global : personal).add(line.text);
+            }
+            List<String> resolved = PlaceholderUtil.resolveAll(any, placeholders, global);
+            for (int i = 0, g = 0; i < count; i++) {
+                if (lines.get(i).global) {
+                    shared[i] = resolved.get(g++);
+                }
+            }
+
+            for (Viewer viewer : viewers.values()) {
+                try {
+                    String title = sharedTitle != null ? sharedTitle : board.title.text.resolve(viewer.getHolder(), viewer.local);
+                    String[] viewerLines = shared;
+                    if (!personal.isEmpty()) {
+                        viewerLines = shared.clone();
+                        resolved = PlaceholderUtil.resolveAll(viewer.getHolder(), viewer.local, personal);
+                        for (int i = 0, p = 0; i < count; i++) {
+                            if (!lines.get(i).global) {
+                                viewerLines[i] = resolved.get(p++);
+                            }
+                        }
+                    }
+                    viewer.apply(new BoardView.Frame(title, lines.size(), viewerLines));
+                } catch (RuntimeException e) {
+                    Uppercore.logger().log(Level.SEVERE, "Error while updating the board of " + viewer.getHolder().getName(), e);
+                }
+            }
+        }
+    }
+
+    private static class Viewer extends ConfigBoard.View {
+        private final PlaceholderRegistry local;
+
+        private Viewer(Player player, SharedConfigBoard board, PlaceholderRegistry local) {
+            super(player, board, local);
+            this.local = local;
+        }
+    }
+}
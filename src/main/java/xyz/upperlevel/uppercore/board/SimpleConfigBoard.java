@@ -0,0 +1,81 @@
+package xyz.upperlevel.uppercore.board;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A board with a fixed title and lines, whose placeholders are resolved for every player.
+ */
+@Getter
+public class SimpleConfigBoard implements ConfigBoard {
+    private final PlaceholderValue<String> title;
+    private final List<PlaceholderValue<String>> lines;
+    private final int updateInterval; // 0 or < 0 are considered null
+
+    public SimpleConfigBoard(PlaceholderValue<String> title, List<PlaceholderValue<String>> lines, int updateInterval) {
+        this.title = title;
+        this.lines = lines;
+        this.updateInterval = updateInterval;
+    }
+
+    @Override
+    public String getTitle(Player holder, PlaceholderRegistry placeholderRegistry) {
+        return title.resolve(holder, placeholderRegistry);
+    }
+
+    @Override
+    public List<String> getLines(Player holder, PlaceholderRegistry placeholderRegistry) {
+        return PlaceholderUtil.resolveAll(holder, placeholderRegistry, lines);
+    }
+
+    @Override
+    public Collection<String> getTitlePlaceholderTokens() {
+        return title.getPlaceholderTokens();
+    }
+
+    @Override
+    public Collection<String> getLinesPlaceholderTokens() {
+        Set<String> res = new HashSet<>();
+        for (PlaceholderValue<String> line : lines) {
+            Collection<String> tokens = line.getPlaceholderTokens();
+            if (tokens == null)
+                return null;
+            res.addAll(tokens);
+        }
+        return res;
+    }
+
+    public boolean needUpdate() {
+        return updateInterval > 0;
+    }
+
+    /**
+     * Loads a board from the configuration.
+     *
+     * @param config the configuration where to load the board
+     * @return the board created
+     */
+    public static SimpleConfigBoard deserialize(Config config) {
+        try {
+            return new SimpleConfigBoard(
+                    config.getMessageStrRequired("title"),
+                    config.getMessageStrList("lines", Collections.emptyList()),
+                    config.getInt("updateInterval", -1)
+            );
+        } catch (InvalidConfigException e) {
+            e.addLocation("in board");
+            throw e;
+        }
+    }
+}
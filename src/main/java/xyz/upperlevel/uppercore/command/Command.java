@@ -150,7 +150,7 @@ public abstract class Command implements CommandExecutor, TabCompleter {
      */
     public boolean call(CommandSender sender, List<String> arguments) {
         // Here we check the permission
-        if (sender.hasPermission(permission)) {
+        if (permission != null && !sender.hasPermission(permission)) {
             sender.sendMessage(ChatColor.RED + "You do not have enough permissions to run this command.");
             return false;
         }
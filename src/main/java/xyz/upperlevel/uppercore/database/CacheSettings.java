@@ -0,0 +1,75 @@
+package xyz.upperlevel.uppercore.database;
+
+import lombok.Getter;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+
+/**
+ * The settings of a {@link CachedDatabase}.
+ */
+@Getter
+public class CacheSettings {
+    private int maxSize = 1000; // Documents kept by every table
+    private int expireAfter = 600; // Seconds without access before a document is removed, 0 to never remove it
+    private int flushInterval = 5; // Seconds between the writes of the changed documents
+
+    private CacheSettings() {
+    }
+
+    /**
+     * Sets the documents kept in memory by every table, the least recently used are removed first.
+     */
+    public CacheSettings maxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The cache maxSize must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Sets the seconds without access after which a document is removed, 0 to never remove it.
+     */
+    public CacheSettings expireAfter(int expireAfter) {
+        if (expireAfter < 0) {
+            throw new IllegalArgumentException("The cache expireAfter can't be negative: " + expireAfter);
+        }
+        this.expireAfter = expireAfter;
+        return this;
+    }
+
+    /**
+     * Sets the seconds between the writes of the changed documents.
+     */
+    public CacheSettings flushInterval(int flushInterval) {
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("The cache flushInterval must be at least 1: " + flushInterval);
+        }
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    /**
+     * Creates the default {@link CacheSettings}.
+     */
+    public static CacheSettings create() {
+        return new CacheSettings();
+    }
+
+    /**
+     * Loads the {@link CacheSettings} from a configuration, the missing settings keep their default.
+     */
+    public static CacheSettings load(Config config) {
+        CacheSettings r = new CacheSettings();
+        r.maxSize = config.getInt("maxSize", r.maxSize);
+        r.expireAfter = config.getInt("expireAfter", r.expireAfter);
+        r.flushInterval = config.getInt("flushInterval", r.flushInterval);
+        if (r.maxSize < 1 || r.flushInterval < 1) {
+            throw new InvalidConfigException("The cache maxSize and flushInterval must be at least 1");
+        }
+        if (r.expireAfter < 0) {
+            throw new InvalidConfigException("The cache expireAfter can't be negative");
+        }
+        return r;
+    }
+}
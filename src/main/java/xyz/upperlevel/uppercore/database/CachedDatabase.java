@@ -0,0 +1,521 @@
+package xyz.upperlevel.uppercore.database;
+
+import lombok.Getter;
+import xyz.upperlevel.uppercore.Uppercore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the documents of any {@link Database} in memory and writes them behind.
+ * <br>
+ * Reads are served from memory once the document is loaded, writes only change the memory and the changed
+ * documents are written together, with a single {@link Table#sendAll(Map)}, every
+ * {@link CacheSettings#getFlushInterval()} seconds: many writes of the same document between two flushes cost
+ * a single write. The least recently used documents (or the ones not
+ * used for {@link CacheSettings#getExpireAfter()} seconds) are removed from memory, after being written.
+ * <br>
+ * The maps are copied (shallowly) when they enter or leave the cache. {@link #close()} (or at least
+ * {@link #flush()}) must be called on plugin disable, otherwise the last changes are lost: the caches created
+ * with {@link StorageManager#cache(Database, CacheSettings)} are closed by Uppercore if still open.
+ */
+public class CachedDatabase implements Database {
+    private static final Object MISSING = new Object();
+
+    @Getter
+    private final Database database;
+    @Getter
+    private final CacheSettings settings;
+    private final Map<String, TableImpl> tables = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // The open caches of the StorageManager that created this one, null if not tracked
+    private final Set<CachedDatabase> openCaches;
+
+    CachedDatabase(Database database, CacheSettings settings, Set<CachedDatabase> openCaches) {
+        this.database = database;
+        this.settings = settings;
+        this.openCaches = openCaches;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Uppercore Cache Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = settings.getFlushInterval();
+        flusher.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public CachedDatabase(Database database, CacheSettings settings) {
+        this(database, settings, null);
+    }
+
+    public CachedDatabase(Database database) {
+        this(database, CacheSettings.create());
+    }
+
+    @Override
+    public TableImpl table(String id) {
+        return tables.computeIfAbsent(id, name -> new TableImpl(database.table(name)));
+    }
+
+    private void tick() {
+        for (TableImpl table : tables.values()) {
+            table.expire();
+            flushQuietly(table);
+        }
+    }
+
+    private void flushQuietly(TableImpl table) {
+        try {
+            table.flush();
+        } catch (RuntimeException e) {
+            Uppercore.logger().log(Level.SEVERE, "Cannot write the cached documents", e);
+        }
+    }
+
+    /**
+     * Writes the changed documents of every table on the calling thread.
+     */
+    public void flush() {
+        for (TableImpl table : tables.values()) {
+            table.flush();
+        }
+    }
+
+    /**
+     * Stops the periodic writes, writes the changed documents and closes the database, only the first call
+     * has effect.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (openCaches != null) {
+            openCaches.remove(this);
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        database.close();
+    }
+
+    private static Map<String, Object> copy(Map<String, Object> data) {
+        return data == null ? null : new HashMap<>(data);
+    }
+
+    // Table
+    public class TableImpl implements Table {
+        @Getter
+        private final Table table;
+        // The least recently used first
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        // Changed documents removed from the cache but not written yet
+        private final Map<String, Map<String, Object>> pending = new HashMap<>();
+        // Documents being written by the current flush, still readable until the write ends
+        private final Map<String, Map<String, Object>> flushing = new HashMap<>();
+        private long flushes; // Flushes ended, the reads that overlap one may return stale data
+        private final Object flushLock = new Object();
+
+        public TableImpl(Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public Document document(String id) {
+            return new DocumentImpl(id);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return table.getExecutor();
+        }
+
+        // Returns MISSING if the document isn't in memory
+        private Object cached(String id) {
+            return cached(id, CachedDatabase::copy);
+        }
+
+        // The view copies the part of the cached data to return
+        private synchronized Object cached(String id, UnaryOperator<Map<String, Object>> view) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                entry.lastAccess = System.currentTimeMillis();
+                return view.apply(entry.data);
+            }
+            Map<String, Object> evicted = pending.remove(id);
+            if (evicted != null) {
+                // Back in the cache, still to write
+                put(id, new Entry(evicted, true));
+                return view.apply(evicted);
+            }
+            Map<String, Object> writing = flushing.get(id);
+            if (writing != null) {
+                // Same map: if the write fails the entry is marked as changed again
+                put(id, new Entry(writing, false));
+                return view.apply(writing);
+            }
+            return MISSING;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> load(String id, Document document) {
+            while (true) {
+                long before = flushesEnded();
+                Map<String, Object> data = document.ask();
+                synchronized (this) {
+                    Object cached = cached(id);
+                    if (cached != MISSING) {
+                        return (Map<String, Object>) cached; // Written while loading
+                    }
+                    if (flushes == before) {
+                        put(id, new Entry(copy(data), false));
+                        return data;
+                    }
+                }
+                // A flush ended while reading, the document may have been read before its write
+            }
+        }
+
+        private synchronized long flushesEnded() {
+            return flushes;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> ask(String id) {
+            Object cached = cached(id);
+            return cached != MISSING ? (Map<String, Object>) cached : load(id, table.document(id));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+            Map<String, Map<String, Object>> res = new HashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String id : ids) {
+                Object cached = cached(id);
+                if (cached != MISSING) {
+                    if (cached != null) {
+                        res.put(id, (Map<String, Object>) cached);
+                    }
+                } else {
+                    missing.add(id);
+                }
+            }
+            while (!missing.isEmpty()) {
+                long before = flushesEnded();
+                Map<String, Map<String, Object>> loaded = table.askAll(missing);
+                synchronized (this) {
+                    if (flushes != before) {
+                        continue; // A flush ended while reading, read again
+                    }
+                    for (Map.Entry<String, Map<String, Object>> document : loaded.entrySet()) {
+                        String id = document.getKey();
+                        Object cached = cached(id);
+                        if (cached != MISSING) {
+                            res.put(id, (Map<String, Object>) cached); // Written while loading
+                        } else {
+                            put(id, new Entry(copy(document.getValue()), false));
+                            res.put(id, document.getValue());
+                        }
+                    }
+                }
+                break;
+            }
+            return res;
+        }
+
+        @Override
+        public void sendAll(Map<String, Map<String, Object>> documents) {
+            boolean evicted = false;
+            synchronized (this) {
+                for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+                    evicted |= write(document.getKey(), document.getValue());
+                }
+            }
+            if (evicted) {
+                flushSoon();
+            }
+        }
+
+        // The changes in memory are written first, so the storage searches the latest data
+        @Override
+        public Map<String, Map<String, Object>> find(Query query) {
+            flush();
+            return table.find(query);
+        }
+
+        @Override
+        public long count(Query query) {
+            flush();
+            return table.count(query);
+        }
+
+        @Override
+        public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+            flush();
+            return table.stream();
+        }
+
+        @Override
+        public void ensureIndex(String field) {
+            table.ensureIndex(field);
+        }
+
+        private void send(String id, Map<String, Object> data) {
+            boolean evicted;
+            synchronized (this) {
+                evicted = write(id, data);
+            }
+            if (evicted) {
+                flushSoon();
+            }
+        }
+
+        // Changes the document in memory, loading it first if needed, the change returns false if nothing changed
+        @SuppressWarnings("unchecked")
+        private void modify(String id, Predicate<Map<String, Object>> change) {
+            boolean evicted = false;
+            while (true) {
+                synchronized (this) {
+                    Object cached = cached(id);
+                    if (cached != MISSING) {
+                        Map<String, Object> data = cached != null ? (Map<String, Object>) cached : new HashMap<>();
+                        if (change.test(data)) {
+                            evicted = write(id, data);
+                        }
+                        break;
+                    }
+                }
+                load(id, table.document(id));
+            }
+            if (evicted) {
+                flushSoon();
+            }
+        }
+
+        // Must hold the lock, returns true if other changed documents were removed from the cache
+        private boolean write(String id, Map<String, Object> data) {
+            pending.remove(id);
+            int pendingBefore = pending.size();
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                put(id, new Entry(copy(data), true));
+            } else {
+                entry.data = copy(data);
+                entry.dirty = true;
+                entry.lastAccess = System.currentTimeMillis();
+            }
+            return pending.size() > pendingBefore;
+        }
+
+        // The evicted documents are written as soon as possible, they're not in the cache anymore
+        private void flushSoon() {
+            flusher.execute(() -> flushQuietly(this));
+        }
+
+        // Must hold the lock
+        private void put(String id, Entry entry) {
+            entries.put(id, entry);
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > settings.getMaxSize()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                iterator.remove();
+                if (eldest.getValue().dirty) {
+                    pending.put(eldest.getKey(), eldest.getValue().data);
+                }
+            }
+        }
+
+        private synchronized void expire() {
+            if (settings.getExpireAfter() <= 0) {
+                return;
+            }
+            long limit = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settings.getExpireAfter());
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+                if (entry.getValue().lastAccess >= limit) {
+                    break; // The others were used later
+                }
+                iterator.remove();
+                if (entry.getValue().dirty) {
+                    pending.put(entry.getKey(), entry.getValue().data);
+                }
+            }
+        }
+
+        /**
+         * Writes the changed documents of the table on the calling thread.
+         */
+        public void flush() {
+            synchronized (flushLock) {
+                Map<String, Map<String, Object>> batch;
+                synchronized (this) {
+                    batch = new LinkedHashMap<>(pending);
+                    pending.clear();
+                    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                        if (entry.getValue().dirty) {
+                            entry.getValue().dirty = false;
+                            batch.put(entry.getKey(), entry.getValue().data);
+                        }
+                    }
+                    flushing.putAll(batch);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                Map<String, Map<String, Object>> copies = new LinkedHashMap<>();
+                for (Map.Entry<String, Map<String, Object>> document : batch.entrySet()) {
+                    copies.put(document.getKey(), copy(document.getValue()));
+                }
+                try {
+                    table.sendAll(copies);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        for (Map.Entry<String, Map<String, Object>> document : batch.entrySet()) {
+                            restore(document.getKey(), document.getValue());
+                        }
+                        endFlush(batch);
+                    }
+                    throw new IllegalStateException("Cannot write " + batch.size() + " documents", e);
+                }
+                synchronized (this) {
+                    endFlush(batch);
+                }
+            }
+        }
+
+        // Must hold the lock
+        private void endFlush(Map<String, Map<String, Object>> batch) {
+            for (Map.Entry<String, Map<String, Object>> document : batch.entrySet()) {
+                flushing.remove(document.getKey(), document.getValue());
+            }
+            flushes++;
+        }
+
+        // Marks the document as still to write, unless it changed in the meantime
+        private synchronized void restore(String id, Map<String, Object> data) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (entry.data == data) {
+                    entry.dirty = true;
+                }
+            } else {
+                pending.putIfAbsent(id, data);
+            }
+        }
+
+        // Document
+        public class DocumentImpl implements Document {
+            private final String id;
+
+            public DocumentImpl(String id) {
+                this.id = id;
+            }
+
+            @Override
+            public Map<String, Object> ask() {
+                return TableImpl.this.ask(id);
+            }
+
+            // Only the fields are copied out of the cache
+            @SuppressWarnings("unchecked")
+            @Override
+            public Map<String, Object> ask(String... fields) {
+                Object cached = cached(id, data -> DatabaseUtil.project(data, fields));
+                if (cached != MISSING) {
+                    return (Map<String, Object>) cached;
+                }
+                return DatabaseUtil.project(load(id, table.document(id)), fields);
+            }
+
+            @Override
+            public void send(Map<String, Object> data) {
+                TableImpl.this.send(id, data);
+            }
+
+            // The changes stay in memory, the whole document is written with the next flush
+            @Override
+            public void update(Map<String, Object> fields) {
+                modify(id, data -> {
+                    data.putAll(fields);
+                    return true;
+                });
+            }
+
+            @Override
+            public void increment(String field, Number delta) {
+                modify(id, data -> {
+                    data.put(field, DatabaseUtil.add(data.get(field), delta));
+                    return true;
+                });
+            }
+
+            @Override
+            public void unset(String field) {
+                modify(id, data -> {
+                    if (!data.containsKey(field)) {
+                        return false;
+                    }
+                    data.remove(field);
+                    return true;
+                });
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public CompletableFuture<Map<String, Object>> askAsync() {
+                Object cached = cached(id);
+                if (cached != MISSING) {
+                    return CompletableFuture.completedFuture((Map<String, Object>) cached);
+                }
+                Document document = table.document(id);
+                return CompletableFuture.supplyAsync(() -> load(id, document), document.getExecutor());
+            }
+
+            @Override
+            public CompletableFuture<Void> sendAsync(Map<String, Object> data) {
+                send(data); // Only in memory
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return table.getExecutor();
+            }
+        }
+    }
+
+    private static class Entry {
+        private Map<String, Object> data;
+        private boolean dirty;
+        private long lastAccess = System.currentTimeMillis();
+
+        private Entry(Map<String, Object> data, boolean dirty) {
+            this.data = data;
+            this.dirty = dirty;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package xyz.upperlevel.uppercore.database;
+
+import lombok.Getter;
+import xyz.upperlevel.uppercore.Uppercore;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * A small pool of JDBC connections, safe to use from many threads.
+ * <br>
+ * The connections idle for longer than {@link PoolSettings#getIdleValidation()} are validated before being
+ * used and the ones older than {@link PoolSettings#getMaxLifetime()} are replaced, so the connections dropped
+ * by the server (ex. MySQL wait_timeout) are never returned. Every connection keeps its prepared statements.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String url, username, password;
+    @Getter
+    private final PoolSettings settings;
+    private final Semaphore permits;
+    // The most recently used connections first, the others can then expire
+    private final BlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, String username, String password, PoolSettings settings) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getSize(), true);
+    }
+
+    /**
+     * Takes a connection, waiting for {@link PoolSettings#getConnectionTimeout()} seconds if all are in use.
+     * It has to be given back with {@link #release(Pooled, boolean)}, prefer {@link #execute(SqlFunction)}.
+     *
+     * @return the connection
+     * @throws SQLException if no connection is available or cannot be opened
+     */
+    public Pooled borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.getConnectionTimeout(), TimeUnit.SECONDS)) {
+                throw new SQLException("No free connection after " + settings.getConnectionTimeout() + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            Pooled res;
+            while ((res = idle.pollFirst()) != null) {
+                if (res.isUsable()) {
+                    return res;
+                }
+                res.close();
+            }
+            return new Pooled(DriverManager.getConnection(url, username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back a connection taken with {@link #borrow()}.
+     *
+     * @param connection the connection
+     * @param broken     true if the connection failed and shouldn't be used again
+     */
+    public void release(Pooled connection, boolean broken) {
+        connection.closeUncached();
+        if (closed || broken || connection.isExpired()) {
+            connection.close();
+        } else {
+            connection.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Runs the function with a connection of the pool, giving it back once done.
+     * If the function fails because of the connection, the connection is closed.
+     *
+     * @param function the function that uses the connection
+     * @return the result of the function
+     * @throws SQLException if the function fails or no connection is available
+     */
+    public <T> T execute(SqlFunction<T> function) throws SQLException {
+        Pooled connection = borrow();
+        boolean broken = false;
+        try {
+            return function.apply(connection);
+        } catch (SQLException e) {
+            broken = isConnectionError(e) || connection.isClosed();
+            throw e;
+        } finally {
+            release(connection, broken);
+        }
+    }
+
+    // SQLState class 08: connection exception
+    private static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    /**
+     * Closes the idle connections, the ones in use are closed when given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Pooled connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+        T apply(Pooled connection) throws SQLException;
+    }
+
+    /**
+     * A connection of the pool with its prepared statements.
+     */
+    public class Pooled {
+        @Getter
+        private final Connection connection;
+        private final long created = System.currentTimeMillis();
+        private long lastUsed = created;
+        private final Map<String, PreparedStatement> statements;
+        // The statements prepared while the cache is disabled, closed when the connection is given back
+        private final List<PreparedStatement> uncached = new ArrayList<>();
+
+        private Pooled(Connection connection) {
+            this.connection = connection;
+            int cacheSize = settings.getStatementCache();
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > cacheSize) {
+                        closeStatement(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Returns the prepared statement of the query, prepared only the first time it's used by this connection.
+         * The statement must not be closed: if {@link PoolSettings#getStatementCache()} is 0 a new statement is
+         * prepared every time and it's closed when the connection is given back to the pool.
+         *
+         * @param sql the query
+         * @return the prepared statement
+         * @throws SQLException if the statement cannot be prepared
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            if (settings.getStatementCache() <= 0) {
+                PreparedStatement res = connection.prepareStatement(sql);
+                uncached.add(res);
+                return res;
+            }
+            PreparedStatement res = statements.get(sql);
+            if (res == null || res.isClosed()) {
+                res = connection.prepareStatement(sql);
+                statements.put(sql, res);
+            }
+            return res;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - created > TimeUnit.SECONDS.toMillis(settings.getMaxLifetime());
+        }
+
+        private boolean isUsable() {
+            if (isExpired()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - lastUsed < TimeUnit.SECONDS.toMillis(settings.getIdleValidation())) {
+                return true;
+            }
+            try {
+                return connection.isValid(settings.getValidationTimeout());
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private boolean isClosed() {
+            try {
+                return connection.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        private void closeStatement(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+
+        private void closeUncached() {
+            for (PreparedStatement statement : uncached) {
+                closeStatement(statement);
+            }
+            uncached.clear();
+        }
+
+        private void close() {
+            closeUncached();
+            for (PreparedStatement statement : statements.values()) {
+                closeStatement(statement);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                Uppercore.logger().log(Level.FINE, "Error while closing a pooled connection", e);
+            }
+        }
+    }
+}
@@ -2,4 +2,10 @@ package xyz.upperlevel.uppercore.database;
 
 public interface Database {
     Table table(String id);
+
+    /**
+     * Closes the connections to the database, it can't be used anymore.
+     */
+    default void close() {
+    }
 }
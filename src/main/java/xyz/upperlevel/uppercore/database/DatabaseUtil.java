@@ -0,0 +1,211 @@
+package xyz.upperlevel.uppercore.database;
+
+import org.bukkit.Bukkit;
+import xyz.upperlevel.uppercore.Uppercore;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Helpers to get back on the main thread from the async operations of the databases, and for the storages.
+ */
+public final class DatabaseUtil {
+    // Documents read ahead for every thread by forEach
+    private static final int BUFFER_PER_THREAD = 16;
+    private static final Map.Entry<String, Map<String, Object>> END = new AbstractMap.SimpleImmutableEntry<>(null, null);
+
+    /**
+     * Runs the tasks on the main thread: immediately if already there, otherwise on the next tick.
+     */
+    public static final Executor MAIN_THREAD = task -> {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(Uppercore.get(), task);
+        }
+    };
+
+    /**
+     * Returns a future completed on the main thread with the same result of the given one.
+     *
+     * @param future the future, usually completed by a storage thread
+     * @return the future completed on the main thread
+     */
+    public static <T> CompletableFuture<T> sync(CompletableFuture<T> future) {
+        return future.thenApplyAsync(res -> res, MAIN_THREAD);
+    }
+
+    /**
+     * Calls the callback on the main thread once the future completes, errors are logged instead.
+     *
+     * @param future   the future, usually completed by a storage thread
+     * @param callback the callback called with the result
+     * @return the future completed after the callback
+     */
+    public static <T> CompletableFuture<Void> sync(CompletableFuture<T> future, Consumer<? super T> callback) {
+        return future.thenAcceptAsync(callback, MAIN_THREAD)
+                .whenComplete((res, e) -> {
+                    if (e != null) {
+                        Uppercore.logger().log(Level.SEVERE, "Error in database operation", e);
+                    }
+                });
+    }
+
+    /**
+     * Returns a new map with only the given fields of the data, as done by {@link Document#ask(String...)}.
+     *
+     * @param data   the document data, can be null
+     * @param fields the fields to keep
+     * @return the fields found in the data, null if the data is null and some fields are asked
+     */
+    public static Map<String, Object> project(Map<String, Object> data, String... fields) {
+        if (fields.length == 0) {
+            return new HashMap<>();
+        }
+        if (data == null) {
+            return null;
+        }
+        Map<String, Object> res = new HashMap<>();
+        for (String field : fields) {
+            if (data.containsKey(field)) {
+                res.put(field, data.get(field));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Adds the delta to a field value, as done by {@link Document#increment(String, Number)}.
+     * Integers stay integers (as long), otherwise the result is a double.
+     *
+     * @param value the field value, null or a number
+     * @param delta the delta to add
+     * @return the sum
+     */
+    public static Number add(Object value, Number delta) {
+        if (value == null) {
+            return delta;
+        }
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Cannot increment a non numeric value: " + value);
+        }
+        Number number = (Number) value;
+        if (isIntegral(number) && isIntegral(delta)) {
+            return number.longValue() + delta.longValue();
+        }
+        return number.doubleValue() + delta.doubleValue();
+    }
+
+    /**
+     * Checks if the number is an integer (a long, an int, a short or a byte).
+     */
+    public static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * Creates a stream over a storage cursor, for {@link Table#stream()}.
+     *
+     * @param iterator the cursor
+     * @param close    called when the stream is closed, null if there's nothing to close
+     * @return the ordered stream
+     */
+    public static <T> Stream<T> stream(Iterator<T> iterator, Runnable close) {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        Stream<T> res = StreamSupport.stream(spliterator, false);
+        return close != null ? res.onClose(close) : res;
+    }
+
+    public static Map.Entry<String, Map<String, Object>> entry(String id, Map<String, Object> data) {
+        return new AbstractMap.SimpleImmutableEntry<>(id, data);
+    }
+
+    /**
+     * Calls the action for every document on many threads, see {@link Table#forEach(BiConsumer, int)}.
+     * The documents are read on the calling thread and at most a few documents for every thread are kept
+     * in memory.
+     *
+     * @param documents   the documents, not closed
+     * @param action      the action called with the id and the data of every document
+     * @param parallelism the threads that call the action
+     */
+    public static void forEach(Stream<Map.Entry<String, Map<String, Object>>> documents,
+                               BiConsumer<String, Map<String, Object>> action,
+                               int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + parallelism);
+        }
+        BlockingQueue<Map.Entry<String, Map<String, Object>>> queue = new ArrayBlockingQueue<>(parallelism * BUFFER_PER_THREAD);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread[] workers = new Thread[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    Map.Entry<String, Map<String, Object>> document;
+                    while ((document = queue.take()) != END) {
+                        if (error.get() != null) {
+                            continue; // Only emptying the queue
+                        }
+                        try {
+                            action.accept(document.getKey(), document.getValue());
+                        } catch (Throwable e) {
+                            error.compareAndSet(null, e);
+                        }
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }, "Uppercore Table Worker #" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        try {
+            documents.forEach(document -> {
+                if (error.get() != null) {
+                    throw new IllegalStateException("Stopped"); // Leaves the stream, the error is thrown below
+                }
+                try {
+                    queue.put(document);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while visiting the documents", e);
+                }
+            });
+        } catch (RuntimeException e) {
+            error.compareAndSet(null, e);
+        } finally {
+            try {
+                for (Thread ignored : workers) {
+                    queue.put(END);
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+            }
+        }
+        if (error.get() != null) {
+            throw new IllegalStateException("Error while visiting the documents", error.get());
+        }
+    }
+
+    private DatabaseUtil() {
+    }
+}
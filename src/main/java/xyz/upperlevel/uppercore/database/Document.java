@@ -1,9 +1,131 @@
 package xyz.upperlevel.uppercore.database;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 public interface Document {
     Map<String, Object> ask();
 
+    /**
+     * Reads only the given fields of the document, the missing fields (and the id) aren't in the map.
+     * <br>
+     * The storages read only those fields, by default the whole document is read and then filtered.
+     *
+     * @param fields the fields to read
+     * @return the fields found, as {@link #ask()} if the document is missing, an empty map if no field is given
+     */
+    default Map<String, Object> ask(String... fields) {
+        return DatabaseUtil.project(ask(), fields);
+    }
+
     void send(Map<String, Object> data);
+
+    /**
+     * Changes only the given fields, the others are kept. The document is created if missing.
+     * <br>
+     * The storages send only the changed fields, by default the document is read and written back.
+     *
+     * @param fields the new values of the fields by their name
+     */
+    default void update(Map<String, Object> fields) {
+        Map<String, Object> data = ask();
+        data = data == null ? new HashMap<>() : new HashMap<>(data);
+        data.putAll(fields);
+        send(data);
+    }
+
+    /**
+     * Adds the delta to a numeric field, a missing field counts as 0. The document is created if missing.
+     * <br>
+     * The storages that support it do it atomically, by default the document is read and written back.
+     *
+     * @param field the field name
+     * @param delta the number to add, negative to subtract
+     */
+    default void increment(String field, Number delta) {
+        Map<String, Object> data = ask();
+        data = data == null ? new HashMap<>() : new HashMap<>(data);
+        data.put(field, DatabaseUtil.add(data.get(field), delta));
+        send(data);
+    }
+
+    /**
+     * Removes a field from the document, nothing happens if the document is missing.
+     *
+     * @param field the field name
+     */
+    default void unset(String field) {
+        Map<String, Object> data = ask();
+        if (data != null && data.containsKey(field)) {
+            data = new HashMap<>(data);
+            data.remove(field);
+            send(data);
+        }
+    }
+
+    /**
+     * Returns the executor where the async operations of the document run, the one of its {@link Storage}.
+     *
+     * @return the executor of the async operations
+     */
+    Executor getExecutor();
+
+    /**
+     * Reads the document off the main thread, see {@link #ask()}.
+     *
+     * @return the future completed with the document data, on a storage thread
+     */
+    default CompletableFuture<Map<String, Object>> askAsync() {
+        return CompletableFuture.supplyAsync(this::ask, getExecutor());
+    }
+
+    /**
+     * Reads the document off the main thread and calls the callback on the main thread, errors are logged.
+     *
+     * @param callback the callback called with the document data
+     * @return the future completed after the callback
+     */
+    default CompletableFuture<Void> askAsync(Consumer<Map<String, Object>> callback) {
+        return DatabaseUtil.sync(askAsync(), callback);
+    }
+
+    /**
+     * Writes the document off the main thread, see {@link #send(Map)}.
+     * <br>
+     * The data is copied before returning, so the caller can keep changing its map.
+     *
+     * @param data the document data
+     * @return the future completed once the document is written, on a storage thread
+     */
+    default CompletableFuture<Void> sendAsync(Map<String, Object> data) {
+        Map<String, Object> copy = new HashMap<>(data);
+        return CompletableFuture.runAsync(() -> send(copy), getExecutor());
+    }
+
+    /**
+     * Changes the fields off the main thread, see {@link #update(Map)}.
+     * <br>
+     * The fields are copied before returning, so the caller can keep changing its map.
+     *
+     * @param fields the new values of the fields by their name
+     * @return the future completed once the fields are written, on a storage thread
+     */
+    default CompletableFuture<Void> updateAsync(Map<String, Object> fields) {
+        Map<String, Object> copy = new HashMap<>(fields);
+        return CompletableFuture.runAsync(() -> update(copy), getExecutor());
+    }
+
+    /**
+     * Increments the field off the main thread, see {@link #increment(String, Number)}.
+     *
+     * @param field the field name
+     * @param delta the number to add, negative to subtract
+     * @return the future completed once the field is written, on a storage thread
+     */
+    default CompletableFuture<Void> incrementAsync(String field, Number delta) {
+        return CompletableFuture.runAsync(() -> increment(field, delta), getExecutor());
+    }
 }
@@ -0,0 +1,96 @@
+package xyz.upperlevel.uppercore.database;
+
+import lombok.Getter;
+import xyz.upperlevel.uppercore.config.Config;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+
+/**
+ * The settings of the connection pool used by the storages that connect through JDBC (ex. MySql).
+ */
+@Getter
+public class PoolSettings {
+    private int size = 10;
+    private int connectionTimeout = 10; // Seconds waiting for a free connection
+    private int idleValidation = 30; // Seconds, connections idle for longer are checked before being used
+    private int validationTimeout = 5; // Seconds
+    private int maxLifetime = 1800; // Seconds, lower than the server wait_timeout
+    private int statementCache = 32; // Prepared statements kept open by every connection
+
+    private PoolSettings() {
+    }
+
+    /**
+     * Sets the max connections open at the same time.
+     */
+    public PoolSettings size(int size) {
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Sets the seconds to wait for a free connection before failing.
+     */
+    public PoolSettings connectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the seconds after which an idle connection is validated before being used.
+     */
+    public PoolSettings idleValidation(int idleValidation) {
+        this.idleValidation = idleValidation;
+        return this;
+    }
+
+    /**
+     * Sets the seconds to wait for the validation of a connection.
+     */
+    public PoolSettings validationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the seconds after which a connection is closed and replaced by a new one.
+     */
+    public PoolSettings maxLifetime(int maxLifetime) {
+        this.maxLifetime = maxLifetime;
+        return this;
+    }
+
+    /**
+     * Sets the prepared statements that every connection keeps open, 0 to disable the cache.
+     */
+    public PoolSettings statementCache(int statementCache) {
+        this.statementCache = statementCache;
+        return this;
+    }
+
+    /**
+     * Creates the default {@link PoolSettings}.
+     */
+    public static PoolSettings create() {
+        return new PoolSettings();
+    }
+
+    /**
+     * Loads the {@link PoolSettings} from a configuration, the missing settings keep their default.
+     */
+    public static PoolSettings load(Config config) {
+        PoolSettings r = new PoolSettings();
+        r.size = config.getInt("size", r.size);
+        r.connectionTimeout = config.getInt("connectionTimeout", r.connectionTimeout);
+        r.idleValidation = config.getInt("idleValidation", r.idleValidation);
+        r.validationTimeout = config.getInt("validationTimeout", r.validationTimeout);
+        r.maxLifetime = config.getInt("maxLifetime", r.maxLifetime);
+        r.statementCache = config.getInt("statementCache", r.statementCache);
+        if (r.size < 1) {
+            throw new InvalidConfigException("The pool size must be at least 1");
+        }
+        if (r.statementCache < 0) {
+            throw new InvalidConfigException("The pool statementCache must be 0 (disabled) or more");
+        }
+        return r;
+    }
+}
@@ -0,0 +1,199 @@
+package xyz.upperlevel.uppercore.database;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A search of the documents of a {@link Table} by their fields, see {@link Table#find(Query)}.
+ * <br>
+ * The filters compare a top level field with a number, a string or a boolean, the documents whose field is
+ * missing or of another type don't match. Ex. the top ten players of the red team:
+ * <pre>
+ * Query.create().eq("team", "red").sort("kills", true).limit(10)
+ * </pre>
+ */
+@Getter
+public class Query {
+    private final List<Filter> filters = new ArrayList<>();
+    private String sort; // null to keep the storage order
+    private boolean descending;
+    private int limit = -1; // < 0 for no limit
+
+    private Query() {
+    }
+
+    /**
+     * Matches the documents whose field is equal to the value.
+     */
+    public Query eq(String field, Object value) {
+        return filter(field, Operator.EQ, value);
+    }
+
+    /**
+     * Matches the documents whose field is greater than the value.
+     */
+    public Query gt(String field, Object value) {
+        return filter(field, Operator.GT, value);
+    }
+
+    /**
+     * Matches the documents whose field is greater than or equal to the value.
+     */
+    public Query gte(String field, Object value) {
+        return filter(field, Operator.GTE, value);
+    }
+
+    /**
+     * Matches the documents whose field is less than the value.
+     */
+    public Query lt(String field, Object value) {
+        return filter(field, Operator.LT, value);
+    }
+
+    /**
+     * Matches the documents whose field is less than or equal to the value.
+     */
+    public Query lte(String field, Object value) {
+        return filter(field, Operator.LTE, value);
+    }
+
+    private Query filter(String field, Operator operator, Object value) {
+        if (!(value instanceof Number || value instanceof String || value instanceof Boolean)) {
+            throw new IllegalArgumentException("Only numbers, strings and booleans can be compared: " + value);
+        }
+        filters.add(new Filter(field, operator, value));
+        return this;
+    }
+
+    /**
+     * Sorts the documents by the field, use {@link Table#ensureIndex(String)} to avoid sorting them all.
+     */
+    public Query sort(String field, boolean descending) {
+        this.sort = field;
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Sets the max documents found.
+     */
+    public Query limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public List<Filter> getFilters() {
+        return Collections.unmodifiableList(filters);
+    }
+
+    public boolean hasLimit() {
+        return limit >= 0;
+    }
+
+    /**
+     * Checks the filters against the data of a document, for the storages that search in memory.
+     *
+     * @param data the document data
+     * @return true if every filter matches
+     */
+    public boolean matches(Map<String, Object> data) {
+        for (Filter filter : filters) {
+            if (!filter.matches(data.get(filter.field))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a query that matches every document.
+     */
+    public static Query create() {
+        return new Query();
+    }
+
+    /**
+     * Compares two field values: numbers by their value, then strings, then booleans, then anything else.
+     *
+     * @param a the first value
+     * @param b the second value
+     * @return a negative number, zero or a positive number if a is less, equal or greater than b
+     */
+    public static int compare(Object a, Object b) {
+        int kind = kind(a);
+        if (kind != kind(b)) {
+            return Integer.compare(kind, kind(b));
+        }
+        switch (kind) {
+            case 0:
+                Number x = (Number) a, y = (Number) b;
+                if (DatabaseUtil.isIntegral(x) && DatabaseUtil.isIntegral(y)) {
+                    return Long.compare(x.longValue(), y.longValue());
+                }
+                return Double.compare(x.doubleValue(), y.doubleValue());
+            case 1:
+                return ((String) a).compareTo((String) b);
+            case 2:
+                return Boolean.compare((Boolean) a, (Boolean) b);
+            default:
+                return 0;
+        }
+    }
+
+    private static int kind(Object value) {
+        if (value instanceof Number) {
+            return 0;
+        } else if (value instanceof String) {
+            return 1;
+        } else if (value instanceof Boolean) {
+            return 2;
+        }
+        return 3;
+    }
+
+    @Getter
+    public static class Filter {
+        private final String field;
+        private final Operator operator;
+        private final Object value;
+
+        private Filter(String field, Operator operator, Object value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        /**
+         * Checks the filter against a field value.
+         *
+         * @param actual the field value of the document, null if missing
+         * @return true if the value matches
+         */
+        public boolean matches(Object actual) {
+            if (kind(actual) != kind(value)) {
+                return false;
+            }
+            int res = compare(actual, value);
+            switch (operator) {
+                case EQ:
+                    return res == 0;
+                case GT:
+                    return res > 0;
+                case GTE:
+                    return res >= 0;
+                case LT:
+                    return res < 0;
+                default:
+                    return res <= 0;
+            }
+        }
+    }
+
+    public enum Operator {
+        EQ, GT, GTE, LT, LTE
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.upperlevel.uppercore.database;
 
 import lombok.Getter;
+import lombok.Setter;
 import xyz.upperlevel.uppercore.Uppercore;
 import xyz.upperlevel.uppercore.util.ExternalJarUtil;
 
@@ -11,33 +12,98 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 public abstract class Storage {
-    public static final File DRIVERS_FOLDER = new File(Uppercore.get().getDataFolder(), "db_drivers");
-
-    static {
-        // On class load, adds the current downloaded jars to the classpath
-        try {
-            File[] files = DRIVERS_FOLDER.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isFile() && file.getName().endsWith(".jar")) {
-                        ExternalJarUtil.addUrl(file.toURI().toURL());
-                    }
-                }
-            }
-        } catch (IOException exception) {
-            throw new IllegalStateException("Cannot setup initial drivers", exception);
-        }
-    }
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+    public static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
 
     @Getter
     private final String name;
 
+    /**
+     * The threads and the max queued operations of the executor, they must be set before its first use.
+     */
+    @Getter
+    @Setter
+    private int threads = DEFAULT_THREADS, queueSize = DEFAULT_QUEUE_SIZE;
+    private volatile ExecutorService executor;
+
     public Storage(String name) {
         this.name = name;
     }
 
+    /**
+     * Gets the folder where the drivers are downloaded.
+     */
+    public static File getDriversFolder() {
+        return Drivers.FOLDER;
+    }
+
+    /**
+     * Returns the executor that runs the async operations of this storage (ex. {@link Document#askAsync()}),
+     * created on first use.
+     * <br>
+     * It has at most {@link #getThreads()} threads and {@link #getQueueSize()} waiting operations, once full
+     * the new operations are rejected instead of piling up.
+     */
+    public ExecutorService getExecutor() {
+        ExecutorService res = executor;
+        if (res == null) {
+            synchronized (this) {
+                res = executor;
+                if (res == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                            threads, threads,
+                            30, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(queueSize),
+                            task -> {
+                                Thread thread = new Thread(task, "Uppercore Storage " + name + " #" + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                    );
+                    pool.allowCoreThreadTimeOut(true);
+                    res = pool;
+                    executor = res;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Stops the executor, waiting for the queued operations (ex. the last saves) to finish.
+     */
+    public void shutdown() {
+        ExecutorService res;
+        synchronized (this) {
+            res = executor;
+            executor = null;
+        }
+        if (res == null) {
+            return;
+        }
+        res.shutdown();
+        try {
+            if (!res.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Uppercore.logger().severe("Storage " + name + " did not finish its operations in " + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+                res.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Uppercore.logger().log(Level.SEVERE, "Interrupted while waiting storage " + name, e);
+            res.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Can this {@link Storage} be used?
      */
@@ -81,9 +147,10 @@ public abstract class Storage {
      * Checks if they were already downloaded.
      */
     public boolean download() {
+        Drivers.load();
         if (!isSupported()) {
             try {
-                File[] files = downloadRequiredFiles(DRIVERS_FOLDER.toPath());
+                File[] files = downloadRequiredFiles(Drivers.FOLDER.toPath());
                 for (File file : files) {
                     ExternalJarUtil.addUrl(file);
                 }
@@ -108,11 +175,55 @@ public abstract class Storage {
      * @return a {@link Database} where is possible to write and read.
      */
     public Database connect(String address, int port, String database, String username, String password) {
+        return connect(address, port, database, username, password, PoolSettings.create());
+    }
+
+    /**
+     * Connects to the storage, see {@link #connect(String, int, String, String, String)}.
+     *
+     * @param address  the address
+     * @param port     the port
+     * @param database the database
+     * @param username the username
+     * @param password the password
+     * @param pool     the connection pool settings, used only by the storages that have a pool
+     * @return a {@link Database} where is possible to write and read.
+     */
+    public Database connect(String address, int port, String database, String username, String password, PoolSettings pool) {
+        Drivers.load();
         if (!isSupported()) {
             throw new StorageNotSupportedException(this);
         }
-        return onConnect(address, port, database, username, password);
+        return onConnect(address, port, database, username, password, pool);
     }
 
     protected abstract Database onConnect(String address, int port, String database, String username, String password);
+
+    protected Database onConnect(String address, int port, String database, String username, String password, PoolSettings pool) {
+        return onConnect(address, port, database, username, password);
+    }
+
+    // Adds the jars downloaded before to the classpath, the first time a storage is used
+    private static class Drivers {
+        private static final File FOLDER = new File(Uppercore.get().getDataFolder(), "db_drivers");
+
+        static {
+            try {
+                File[] files = FOLDER.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        if (file.isFile() && file.getName().endsWith(".jar")) {
+                            ExternalJarUtil.addUrl(file.toURI().toURL());
+                        }
+                    }
+                }
+            } catch (IOException exception) {
+                throw new IllegalStateException("Cannot setup initial drivers", exception);
+            }
+        }
+
+        // Runs the static initializer once
+        private static void load() {
+        }
+    }
 }
@@ -16,6 +16,9 @@ public class StorageLocation {
     // Non gettable (just to have a little security)
     private String username, password;
 
+    @Getter
+    private PoolSettings pool = PoolSettings.create();
+
     private StorageLocation() {
     }
 
@@ -60,14 +63,22 @@ public class StorageLocation {
         return this;
     }
 
+    /**
+     * Sets the connection pool settings of the storage.
+     */
+    public StorageLocation pool(PoolSettings pool) {
+        this.pool = pool;
+        return this;
+    }
+
     /**
      * Connects to the given {@link Storage} with current parameters:
-     * address, port, database, username and password.
+     * address, port, database, username, password and pool settings.
      *
      * @return a {@link Database} where is possible to write and read.
      */
     public Database connect(Storage storage) {
-        return storage.connect(address, port, database, username, password);
+        return storage.connect(address, port, database, username, password, pool);
     }
 
     /**
@@ -87,6 +98,10 @@ public class StorageLocation {
         r.database = config.getString("database");
         r.username = config.getString("username");
         r.password = config.getString("password");
+        Config pool = config.getConfig("pool");
+        if (pool != null) {
+            r.pool = PoolSettings.load(pool);
+        }
         return r;
     }
 }
@@ -1,16 +1,22 @@
 package xyz.upperlevel.uppercore.database;
 
+import xyz.upperlevel.uppercore.Uppercore;
 import xyz.upperlevel.uppercore.database.impl.Flatfile;
 import xyz.upperlevel.uppercore.database.impl.MongoDb;
 import xyz.upperlevel.uppercore.database.impl.MySql;
 import xyz.upperlevel.uppercore.database.impl.RethinkDb;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 public class StorageManager {
     private final Map<String, Storage> storageByName = new HashMap<>();
+    private final Set<CachedDatabase> caches = ConcurrentHashMap.newKeySet();
 
     public StorageManager() {
         registerStorage(new Flatfile());
@@ -26,4 +32,40 @@ public class StorageManager {
     public Storage getStorage(String name) {
         return storageByName.get(name.toLowerCase(Locale.ENGLISH));
     }
-}
\ No newline at end of file
+
+    /**
+     * Keeps the documents of the database in memory, see {@link CachedDatabase}. The cache is closed by
+     * {@link #closeCaches()} on plugin disable if it is still open.
+     *
+     * @param database the database to cache
+     * @param settings the settings of the cache
+     * @return the cached database
+     */
+    public CachedDatabase cache(Database database, CacheSettings settings) {
+        CachedDatabase cache = new CachedDatabase(database, settings, caches);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Closes the caches still open, writing their changed documents on the calling thread.
+     */
+    public void closeCaches() {
+        for (CachedDatabase cache : new ArrayList<>(caches)) {
+            try {
+                cache.close();
+            } catch (RuntimeException e) {
+                Uppercore.logger().log(Level.SEVERE, "Cannot close the cached database", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the executors of every storage, waiting for their pending operations.
+     */
+    public void shutdown() {
+        for (Storage storage : storageByName.values()) {
+            storage.shutdown();
+        }
+    }
+}
@@ -1,5 +1,154 @@
 package xyz.upperlevel.uppercore.database;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
 public interface Table {
     Document document(String id);
+
+    /**
+     * Returns the executor where the async operations of the table run, the one of its {@link Storage}.
+     *
+     * @return the executor of the async operations
+     */
+    Executor getExecutor();
+
+    /**
+     * Reads many documents at once, the storages read them with as few requests as they can.
+     *
+     * @param ids the ids of the documents
+     * @return the data of the documents found by their id, the missing documents aren't in the map
+     */
+    default Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+        Map<String, Map<String, Object>> res = new HashMap<>();
+        for (String id : ids) {
+            Map<String, Object> data = document(id).ask();
+            if (data != null) {
+                res.put(id, data);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Writes many documents at once, the storages write them with as few requests as they can.
+     *
+     * @param documents the data of the documents by their id
+     */
+    default void sendAll(Map<String, Map<String, Object>> documents) {
+        for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+            document(document.getKey()).send(document.getValue());
+        }
+    }
+
+    /**
+     * Searches the documents that match the query.
+     *
+     * @param query the filters, sort and limit
+     * @return the data of the documents found by their id, in the query order
+     * @throws UnsupportedOperationException if the storage cannot search its documents
+     */
+    default Map<String, Map<String, Object>> find(Query query) {
+        throw new UnsupportedOperationException("Queries aren't supported by: " + getClass().getName());
+    }
+
+    /**
+     * Counts the documents that match the query, without reading them if the storage can.
+     *
+     * @param query the filters and limit, the sort is ignored
+     * @return the number of documents found
+     */
+    default long count(Query query) {
+        return find(query).size();
+    }
+
+    /**
+     * Indexes a field, so the queries that filter or sort by it don't read every document.
+     * It's cheap to call when the index already exists, plugins usually call it when they open the table.
+     *
+     * @param field the top level field
+     */
+    default void ensureIndex(String field) {
+    }
+
+    /**
+     * Returns every document of the table, read a page at a time, so the memory used doesn't depend on the
+     * table size. The stream must be closed, it holds the storage cursor.
+     * <br>
+     * By default all the documents are read with {@link #find(Query)}.
+     *
+     * @return the documents as entries of id and data
+     */
+    default Stream<Map.Entry<String, Map<String, Object>>> stream() {
+        return find(Query.create()).entrySet().stream();
+    }
+
+    /**
+     * Calls the action for every document of the table, on the calling thread, see {@link #stream()}.
+     *
+     * @param action the action called with the id and the data of every document
+     */
+    default void forEach(BiConsumer<String, Map<String, Object>> action) {
+        try (Stream<Map.Entry<String, Map<String, Object>>> documents = stream()) {
+            documents.forEach(document -> action.accept(document.getKey(), document.getValue()));
+        }
+    }
+
+    /**
+     * Calls the action for every document of the table on many threads, while the calling thread reads the
+     * documents. Returns once every document is done.
+     *
+     * @param action      the action called with the id and the data of every document, from many threads
+     * @param parallelism the threads that call the action
+     * @throws IllegalStateException if the action fails, no other document is read after the error
+     */
+    default void forEach(BiConsumer<String, Map<String, Object>> action, int parallelism) {
+        try (Stream<Map.Entry<String, Map<String, Object>>> documents = stream()) {
+            DatabaseUtil.forEach(documents, action, parallelism);
+        }
+    }
+
+    /**
+     * Searches the documents off the main thread, see {@link #find(Query)}.
+     *
+     * @param query the filters, sort and limit
+     * @return the future completed with the documents found, on a storage thread
+     */
+    default CompletableFuture<Map<String, Map<String, Object>>> findAsync(Query query) {
+        return CompletableFuture.supplyAsync(() -> find(query), getExecutor());
+    }
+
+    /**
+     * Reads many documents off the main thread, see {@link #askAll(Collection)}.
+     *
+     * @param ids the ids of the documents
+     * @return the future completed with the documents found, on a storage thread
+     */
+    default CompletableFuture<Map<String, Map<String, Object>>> askAllAsync(Collection<String> ids) {
+        Collection<String> copy = new ArrayList<>(ids);
+        return CompletableFuture.supplyAsync(() -> askAll(copy), getExecutor());
+    }
+
+    /**
+     * Writes many documents off the main thread, see {@link #sendAll(Map)}.
+     * <br>
+     * The data is copied before returning, so the caller can keep changing its maps.
+     *
+     * @param documents the data of the documents by their id
+     * @return the future completed once the documents are written, on a storage thread
+     */
+    default CompletableFuture<Void> sendAllAsync(Map<String, Map<String, Object>> documents) {
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+            copy.put(document.getKey(), new HashMap<>(document.getValue()));
+        }
+        return CompletableFuture.runAsync(() -> sendAll(copy), getExecutor());
+    }
 }
@@ -4,7 +4,9 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import xyz.upperlevel.uppercore.database.Database;
+import xyz.upperlevel.uppercore.database.DatabaseUtil;
 import xyz.upperlevel.uppercore.database.Document;
+import xyz.upperlevel.uppercore.database.Query;
 import xyz.upperlevel.uppercore.database.Storage;
 import xyz.upperlevel.uppercore.database.Table;
 
@@ -12,8 +14,26 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unchecked")
 @Deprecated
@@ -35,7 +55,7 @@ public class Flatfile extends Storage {
 
 
     @Override
-    public Database onConnect(String address, int port, String database, String password, String username) {
+    public Database onConnect(String address, int port, String database, String username, String password) {
         // Database
         File db = new File("plugins", database + File.separator + "db");
         db.mkdirs();
@@ -43,9 +63,19 @@ public class Flatfile extends Storage {
         return new DatabaseImpl(db);
     }
 
+    // The missing values first, as the other storages do
+    private static int compare(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return Query.compare(a, b);
+    }
+
     // Database
     public class DatabaseImpl implements Database {
         private final File db;
+        // The same table is returned every time, it keeps the lock and the indexes of its files
+        private final Map<String, TableImpl> tables = new ConcurrentHashMap<>();
 
         public DatabaseImpl(File db) {
             this.db = db;
@@ -53,15 +83,18 @@ public class Flatfile extends Storage {
 
         @Override
         public Table table(String id) {
-            File folder = new File(db, id);
-            folder.mkdirs();
+            return tables.computeIfAbsent(id, name -> {
+                File folder = new File(db, name);
+                folder.mkdirs();
 
-            return new TableImpl(folder);
+                return new TableImpl(folder);
+            });
         }
 
         // Table
         public class TableImpl implements Table {
             private final File table;
+            private final Map<String, Index> indexes = new HashMap<>(); // Guarded by the table lock
 
             public TableImpl(File table) {
                 this.table = table;
@@ -77,34 +110,303 @@ public class Flatfile extends Storage {
                 return new DocumentImpl(document);
             }
 
+            @Override
+            public Executor getExecutor() {
+                return Flatfile.this.getExecutor();
+            }
+
+            // Must hold the lock, null if the document is missing, never written or invalid
+            private Map<String, Object> read(String id) {
+                File document = new File(table, id + ".json");
+                if (document.length() == 0) {
+                    return null;
+                }
+                try (FileReader reader = new FileReader(document)) {
+                    return (Map<String, Object>) new JSONParser().parse(reader);
+                } catch (IOException | ParseException e) {
+                    return null;
+                }
+            }
+
+            private List<String> list() {
+                String[] files = table.list((dir, name) -> name.endsWith(".json"));
+                List<String> res = new ArrayList<>(files == null ? 0 : files.length);
+                if (files != null) {
+                    for (String file : files) {
+                        res.add(file.substring(0, file.length() - ".json".length()));
+                    }
+                }
+                return res;
+            }
+
+            // Doesn't create the files of the missing documents
+            @Override
+            public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+                Map<String, Map<String, Object>> res = new HashMap<>();
+                synchronized (this) {
+                    for (String id : ids) {
+                        Map<String, Object> data = read(id);
+                        if (data != null) {
+                            res.put(id, data);
+                        }
+                    }
+                }
+                return res;
+            }
+
+            // The files are listed while iterating, every document is read under the lock
+            @Override
+            public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+                DirectoryStream<Path> files;
+                try {
+                    files = Files.newDirectoryStream(table.toPath(), "*.json");
+                } catch (IOException exception) {
+                    throw new IllegalStateException("Cannot list: " + table.getPath(), exception);
+                }
+                return DatabaseUtil.stream(files.iterator(), () -> {
+                    try {
+                        files.close();
+                    } catch (IOException ignored) {
+                    }
+                }).map(file -> {
+                    String name = file.getFileName().toString();
+                    String id = name.substring(0, name.length() - ".json".length());
+                    Map<String, Object> data;
+                    synchronized (this) {
+                        data = read(id);
+                    }
+                    return data != null ? DatabaseUtil.entry(id, data) : null;
+                }).filter(Objects::nonNull);
+            }
+
+            /**
+             * Reads every document once to index the field in memory, the index is then kept updated by the
+             * writes of this table. The index isn't saved, it's built again when the plugin calls this method.
+             *
+             * @param field the top level field
+             */
+            @Override
+            public synchronized void ensureIndex(String field) {
+                if (indexes.containsKey(field)) {
+                    return;
+                }
+                Index index = new Index(field);
+                for (String id : list()) {
+                    Map<String, Object> data = read(id);
+                    if (data != null) {
+                        index.put(id, data);
+                    }
+                }
+                indexes.put(field, index);
+            }
+
+            @Override
+            public synchronized Map<String, Map<String, Object>> find(Query query) {
+                Map<String, Map<String, Object>> res = new LinkedHashMap<>();
+                String sort = query.getSort();
+                Index sortIndex = sort != null ? indexes.get(sort) : null;
+                // Already in order, reading stops at the limit
+                Collection<String> ids = sortIndex != null ? sortIndex.sorted(query.isDescending()) : candidates(query);
+                boolean sorted = sort == null || sortIndex != null;
+                for (String id : ids) {
+                    if (sorted && query.hasLimit() && res.size() >= query.getLimit()) {
+                        break;
+                    }
+                    if (!matchesIndexed(id, query)) {
+                        continue;
+                    }
+                    Map<String, Object> data = read(id);
+                    if (data != null && query.matches(data)) {
+                        res.put(id, data);
+                    }
+                }
+                if (sorted) {
+                    return res;
+                }
+                List<Map.Entry<String, Map<String, Object>>> entries = new ArrayList<>(res.entrySet());
+                Comparator<Map.Entry<String, Map<String, Object>>> order = (a, b) -> compare(a.getValue().get(sort), b.getValue().get(sort));
+                entries.sort(query.isDescending() ? order.reversed() : order);
+                int size = query.hasLimit() ? Math.min(query.getLimit(), entries.size()) : entries.size();
+                Map<String, Map<String, Object>> sortedRes = new LinkedHashMap<>();
+                for (Map.Entry<String, Map<String, Object>> entry : entries.subList(0, size)) {
+                    sortedRes.put(entry.getKey(), entry.getValue());
+                }
+                return sortedRes;
+            }
+
+            // Counted without reading the documents if every filtered field is indexed
+            @Override
+            public synchronized long count(Query query) {
+                for (Query.Filter filter : query.getFilters()) {
+                    if (!indexes.containsKey(filter.getField())) {
+                        return Table.super.count(query);
+                    }
+                }
+                long res = 0;
+                for (String id : candidates(query)) {
+                    if (matchesIndexed(id, query) && (!query.getFilters().isEmpty() || read(id) != null)) {
+                        res++;
+                    }
+                }
+                return query.hasLimit() ? Math.min(res, query.getLimit()) : res;
+            }
+
+            // The ids that may match, from the index of the first indexed filter if there's any
+            private Collection<String> candidates(Query query) {
+                for (Query.Filter filter : query.getFilters()) {
+                    Index index = indexes.get(filter.getField());
+                    if (index != null) {
+                        return index.matching(filter);
+                    }
+                }
+                return list();
+            }
+
+            // Checks the filters on the indexed fields without reading the document
+            private boolean matchesIndexed(String id, Query query) {
+                for (Query.Filter filter : query.getFilters()) {
+                    Index index = indexes.get(filter.getField());
+                    if (index != null && !filter.matches(index.values.get(id))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private void indexed(String id, Map<String, Object> data) {
+                for (Index index : indexes.values()) {
+                    index.put(id, data);
+                }
+            }
+
             // Document
             public class DocumentImpl implements Document {
                 private final File document;
+                private final String id;
 
                 public DocumentImpl(File document) {
                     this.document = document;
+                    String name = document.getName();
+                    this.id = name.substring(0, name.length() - ".json".length());
                 }
 
+                // The files of the table are read and written by one thread at a time
                 @Override
                 public Map<String, Object> ask() {
-                    JSONParser parser = new JSONParser();
-                    try {
-                        return (Map<String, Object>) parser.parse(new FileReader(document));
-                    } catch (IOException | ParseException e) {
-                        return new HashMap<>();
+                    synchronized (TableImpl.this) {
+                        Map<String, Object> res = read(id);
+                        return res != null ? res : new HashMap<>();
                     }
                 }
 
                 @Override
                 public void send(Map<String, Object> data) {
-                    try (FileWriter writer = new FileWriter(document)) {
-                        writer.write(new JSONObject(data).toJSONString());
-                        writer.flush();
-                    } catch (IOException exception) {
-                        throw new IllegalStateException("Cannot write to: " + document.getPath(), exception);
+                    String json = new JSONObject(data).toJSONString();
+                    synchronized (TableImpl.this) {
+                        try (FileWriter writer = new FileWriter(document)) {
+                            writer.write(json);
+                            writer.flush();
+                        } catch (IOException exception) {
+                            throw new IllegalStateException("Cannot write to: " + document.getPath(), exception);
+                        }
+                        indexed(id, data);
+                    }
+                }
+
+                // Read and written back under the lock, so concurrent changes aren't lost
+                @Override
+                public void update(Map<String, Object> fields) {
+                    synchronized (TableImpl.this) {
+                        Document.super.update(fields);
                     }
                 }
+
+                @Override
+                public void increment(String field, Number delta) {
+                    synchronized (TableImpl.this) {
+                        Document.super.increment(field, delta);
+                    }
+                }
+
+                @Override
+                public void unset(String field) {
+                    synchronized (TableImpl.this) {
+                        Document.super.unset(field);
+                    }
+                }
+
+                @Override
+                public Executor getExecutor() {
+                    return Flatfile.this.getExecutor();
+                }
+            }
+        }
+    }
+
+    // The ids of the documents by the value of a field, guarded by the table lock
+    private static class Index {
+        private final String field;
+        private final Map<String, Object> values = new HashMap<>();
+        private final NavigableMap<Object, Set<String>> ids = new TreeMap<>(Query::compare);
+        // The documents without the field (or with a value that cannot be compared)
+        private final Set<String> missing = new TreeSet<>();
+
+        private Index(String field) {
+            this.field = field;
+        }
+
+        private void put(String id, Map<String, Object> data) {
+            Object old = values.remove(id);
+            if (old != null) {
+                Set<String> same = ids.get(old);
+                same.remove(id);
+                if (same.isEmpty()) {
+                    ids.remove(old);
+                }
+            }
+            missing.remove(id);
+            Object value = data.get(field);
+            if (value instanceof Number || value instanceof String || value instanceof Boolean) {
+                values.put(id, value);
+                ids.computeIfAbsent(value, key -> new TreeSet<>()).add(id);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        private Collection<String> sorted(boolean descending) {
+            Collection<String> res = new LinkedHashSet<>();
+            if (!descending) {
+                res.addAll(missing);
+            }
+            for (Set<String> same : (descending ? ids.descendingMap() : ids).values()) {
+                res.addAll(same);
+            }
+            if (descending) {
+                res.addAll(missing);
+            }
+            return res;
+        }
+
+        private Collection<String> matching(Query.Filter filter) {
+            Object value = filter.getValue();
+            NavigableMap<Object, Set<String>> range;
+            switch (filter.getOperator()) {
+                case EQ:
+                    Set<String> same = ids.get(value);
+                    return same != null ? new ArrayList<>(same) : Collections.emptyList();
+                case GT:
+                case GTE:
+                    range = ids.tailMap(value, filter.getOperator() == Query.Operator.GTE);
+                    break;
+                default:
+                    range = ids.headMap(value, filter.getOperator() == Query.Operator.LTE);
+            }
+            List<String> res = new ArrayList<>();
+            for (Set<String> same : range.values()) {
+                res.addAll(same);
             }
+            return res;
         }
     }
 }
@@ -3,17 +3,38 @@ package xyz.upperlevel.uppercore.database.impl;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.conversions.Bson;
 import xyz.upperlevel.uppercore.database.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import static com.mongodb.MongoCredential.createCredential;
 
 public class MongoDb extends Storage {
+    // Documents sent by the server at a time while streaming a collection
+    public static final int STREAM_BATCH_SIZE = 500;
+
     public MongoDb() {
         super("mongodb");
     }
@@ -36,7 +57,7 @@ public class MongoDb extends Storage {
     }
 
     @Override
-    public Database onConnect(String address, int port, String database, String password, String username) {
+    public Database onConnect(String address, int port, String database, String username, String password) {
         // Connection
         MongoCredential credential = createCredential(username, database, password.toCharArray());
         MongoClient client = new MongoClient(new ServerAddress(address, port), Collections.singletonList(credential));
@@ -59,6 +80,11 @@ public class MongoDb extends Storage {
             return new TableImpl(db.getCollection(id));
         }
 
+        @Override
+        public void close() {
+            client.close();
+        }
+
         // Table
         public class TableImpl implements Table {
             private final MongoCollection<org.bson.Document> table;
@@ -72,6 +98,109 @@ public class MongoDb extends Storage {
                 return new DocumentImpl(id);
             }
 
+            @Override
+            public Executor getExecutor() {
+                return MongoDb.this.getExecutor();
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+                Map<String, Map<String, Object>> res = new HashMap<>();
+                for (org.bson.Document document : table.find(Filters.in("_id", ids))) {
+                    res.put(String.valueOf(document.get("_id")), document);
+                }
+                return res;
+            }
+
+            private Bson filter(Query query) {
+                if (query.getFilters().isEmpty()) {
+                    return new org.bson.Document();
+                }
+                List<Bson> res = new ArrayList<>();
+                for (Query.Filter filter : query.getFilters()) {
+                    String field = filter.getField();
+                    Object value = filter.getValue();
+                    switch (filter.getOperator()) {
+                        case EQ:
+                            res.add(Filters.eq(field, value));
+                            break;
+                        case GT:
+                            res.add(Filters.gt(field, value));
+                            break;
+                        case GTE:
+                            res.add(Filters.gte(field, value));
+                            break;
+                        case LT:
+                            res.add(Filters.lt(field, value));
+                            break;
+                        default:
+                            res.add(Filters.lte(field, value));
+                    }
+                }
+                return Filters.and(res);
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> find(Query query) {
+                FindIterable<org.bson.Document> documents = table.find(filter(query));
+                if (query.getSort() != null) {
+                    documents.sort(query.isDescending() ? Sorts.descending(query.getSort()) : Sorts.ascending(query.getSort()));
+                }
+                if (query.hasLimit()) {
+                    if (query.getLimit() == 0) {
+                        return new LinkedHashMap<>();
+                    }
+                    documents.limit(query.getLimit());
+                }
+                Map<String, Map<String, Object>> res = new LinkedHashMap<>();
+                for (org.bson.Document document : documents) {
+                    res.put(String.valueOf(document.get("_id")), document);
+                }
+                return res;
+            }
+
+            @Override
+            public long count(Query query) {
+                CountOptions options = new CountOptions();
+                if (query.hasLimit()) {
+                    if (query.getLimit() == 0) {
+                        return 0;
+                    }
+                    options.limit(query.getLimit());
+                }
+                return table.count(filter(query), options);
+            }
+
+            @Override
+            public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+                MongoCursor<org.bson.Document> cursor = table.find().batchSize(STREAM_BATCH_SIZE).iterator();
+                return DatabaseUtil.stream(cursor, cursor::close)
+                        .map(document -> DatabaseUtil.entry(String.valueOf(document.get("_id")), document));
+            }
+
+            // Does nothing if the index already exists
+            @Override
+            public void ensureIndex(String field) {
+                table.createIndex(Indexes.ascending(field));
+            }
+
+            @Override
+            public void sendAll(Map<String, Map<String, Object>> documents) {
+                if (documents.isEmpty()) {
+                    return;
+                }
+                List<WriteModel<org.bson.Document>> writes = new ArrayList<>(documents.size());
+                for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+                    String id = document.getKey();
+                    writes.add(new ReplaceOneModel<>(
+                            new org.bson.Document("_id", id),
+                            new org.bson.Document(document.getValue()).append("_id", id),
+                            new UpdateOptions().upsert(true)));
+                }
+                // Unordered: the server can apply them in parallel, a failure doesn't stop the others
+                table.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            }
+
             // Document
             public class DocumentImpl implements Document {
                 private final String id;
@@ -85,6 +214,18 @@ public class MongoDb extends Storage {
                     return table.find(new org.bson.Document("_id", id)).limit(1).first();
                 }
 
+                @Override
+                public Map<String, Object> ask(String... fields) {
+                    if (fields.length == 0) {
+                        return new HashMap<>();
+                    }
+                    // The id is sent by default, only the fields asked are returned
+                    return table.find(new org.bson.Document("_id", id))
+                            .projection(Projections.fields(Projections.include(fields), Projections.excludeId()))
+                            .limit(1)
+                            .first();
+                }
+
                 @Override
                 public void send(Map<String, Object> data) {
                     table.replaceOne(
@@ -92,6 +233,37 @@ public class MongoDb extends Storage {
                             new org.bson.Document(data).append("_id", id),
                             new UpdateOptions().upsert(true));
                 }
+
+                // Only the changed fields are sent, the server applies them to the stored document
+                @Override
+                public void update(Map<String, Object> fields) {
+                    if (fields.isEmpty()) {
+                        return;
+                    }
+                    change("$set", new org.bson.Document(fields), true);
+                }
+
+                @Override
+                public void increment(String field, Number delta) {
+                    change("$inc", new org.bson.Document(field, delta), true);
+                }
+
+                @Override
+                public void unset(String field) {
+                    change("$unset", new org.bson.Document(field, ""), false);
+                }
+
+                private void change(String operator, org.bson.Document fields, boolean upsert) {
+                    table.updateOne(
+                            new org.bson.Document("_id", id),
+                            new org.bson.Document(operator, fields),
+                            new UpdateOptions().upsert(upsert));
+                }
+
+                @Override
+                public Executor getExecutor() {
+                    return MongoDb.this.getExecutor();
+                }
             }
         }
     }
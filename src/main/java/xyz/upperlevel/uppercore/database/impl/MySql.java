@@ -2,18 +2,43 @@ package xyz.upperlevel.uppercore.database.impl;
 
 import lombok.Getter;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import xyz.upperlevel.uppercore.database.ConnectionPool;
 import xyz.upperlevel.uppercore.database.Database;
+import xyz.upperlevel.uppercore.database.DatabaseUtil;
 import xyz.upperlevel.uppercore.database.Document;
+import xyz.upperlevel.uppercore.database.PoolSettings;
+import xyz.upperlevel.uppercore.database.Query;
 import xyz.upperlevel.uppercore.database.Storage;
 import xyz.upperlevel.uppercore.database.Table;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class MySql extends Storage {
+    // Table names can't be statement parameters, they're checked instead
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z0-9_]{1,64}");
+    // Indexed fields become generated columns named "idx_<field>"
+    private static final Pattern INDEX_FIELD = Pattern.compile("[A-Za-z0-9_]{1,60}");
+    private static final String NUMBER_TYPES = "('INTEGER', 'UNSIGNED INTEGER', 'DOUBLE', 'DECIMAL')";
+    // Max documents read or written by a single query
+    public static final int BATCH_SIZE = 500;
+
     public MySql() {
         super("mysql");
     }
@@ -31,56 +56,92 @@ public class MySql extends Storage {
     }
 
     @Override
-    public Database onConnect(String address, int port, String database, String password, String username) {
+    public Database onConnect(String address, int port, String database, String username, String password) {
+        return onConnect(address, port, database, username, password, PoolSettings.create());
+    }
+
+    @Override
+    public Database onConnect(String address, int port, String database, String username, String password, PoolSettings settings) {
         // Connection
         String url = "jdbc:mysql://" + address + ":" + port + "/" + database;
-        Connection connection;
+        ConnectionPool pool = new ConnectionPool(url, username, password, settings);
         try {
-            connection = DriverManager.getConnection(url, username, password);
+            // Fails now if the database can't be reached
+            pool.execute(connection -> null);
         } catch (SQLException exception) {
-            throw new IllegalStateException("Cannot connect to: " + url);
+            pool.close();
+            throw new IllegalStateException("Cannot connect to: " + url, exception);
         }
-        return new DatabaseImpl(connection);
+        return new DatabaseImpl(pool);
     }
 
     // Database
     public class DatabaseImpl implements Database {
-        private final Connection connection;
-        private PreparedStatement askQuery, sendQuery, createTableQuery;
-
-        private void prepareStatements() {
-            try {
-                askQuery = connection.prepareStatement("SELECT value FROM ? WHERE id = ?;");
-                sendQuery = connection.prepareStatement("REPLACE INTO ? (id, value) VALUES(?, ?);");
-                createTableQuery = connection.prepareStatement("CREATE TABLE IF NOT EXISTS ?(id varchar(16), value JSON);");
-            } catch (SQLException exception) {
-                throw new IllegalStateException("Cannot init statements: ", exception);
-            }
-        }
+        @Getter
+        private final ConnectionPool pool;
 
-        public DatabaseImpl(Connection connection) {
-            this.connection = connection;
-            prepareStatements();
+        public DatabaseImpl(ConnectionPool pool) {
+            this.pool = pool;
         }
 
         @Override
         public Table table(String id) {
+            if (!TABLE_NAME.matcher(id).matches()) {
+                throw new IllegalArgumentException("Invalid table name: " + id);
+            }
             try {
-                createTableQuery.setString(1, id);
-                createTableQuery.execute();
+                pool.execute(connection -> {
+                    try (Statement statement = connection.getConnection().createStatement()) {
+                        statement.execute("CREATE TABLE IF NOT EXISTS `" + id + "` (id VARCHAR(64) PRIMARY KEY, value JSON);");
+                    }
+                    return null;
+                });
             } catch (SQLException exception) {
                 throw new IllegalStateException("Cannot create table: " + id, exception);
             }
-            return new TableImpl(id);
+            TableImpl table = new TableImpl(id);
+            table.loadIndexes();
+            return table;
+        }
+
+        @Override
+        public void close() {
+            pool.close();
         }
 
         // Table
         public class TableImpl implements Table {
             @Getter
             private final String tableId;
+            private final String askQuery, sendQuery, incrementQuery, incrementIntegerQuery, unsetQuery;
+            private final Set<String> indexes = ConcurrentHashMap.newKeySet();
 
             public TableImpl(String tableId) {
                 this.tableId = tableId;
+                this.askQuery = "SELECT value FROM `" + tableId + "` WHERE id = ?;";
+                this.sendQuery = "REPLACE INTO `" + tableId + "` (id, value) VALUES(?, ?);";
+                // The missing documents are inserted with only the changed fields
+                this.incrementQuery = "INSERT INTO `" + tableId + "` (id, value) VALUES(?, ?) " +
+                        "ON DUPLICATE KEY UPDATE value = JSON_SET(value, ?, COALESCE(JSON_EXTRACT(value, ?), 0) + ?);";
+                // MySQL sums JSON values as doubles, integers are summed as integers unless the field is a double
+                this.incrementIntegerQuery = "INSERT INTO `" + tableId + "` (id, value) VALUES(?, ?) " +
+                        "ON DUPLICATE KEY UPDATE value = JSON_SET(value, ?, IF(JSON_TYPE(JSON_EXTRACT(value, ?)) IN ('DOUBLE', 'DECIMAL'), " +
+                        "CAST(JSON_EXTRACT(value, ?) + ? AS JSON), CAST(CAST(COALESCE(JSON_EXTRACT(value, ?), 0) AS SIGNED) + ? AS JSON)));";
+                this.unsetQuery = "UPDATE `" + tableId + "` SET value = JSON_REMOVE(value, ?) WHERE id = ?;";
+            }
+
+            private String askQuery(int fields) {
+                return "SELECT " + repeat("JSON_EXTRACT(value, ?)", fields) + " FROM `" + tableId + "` WHERE id = ?;";
+            }
+
+            private String updateQuery(int fields) {
+                return "INSERT INTO `" + tableId + "` (id, value) VALUES(?, ?) " +
+                        "ON DUPLICATE KEY UPDATE value = JSON_SET(value, " + repeat("?, CAST(? AS JSON)", fields) + ");";
+            }
+
+            // The JSON path of a top level field, quoted as it can contain any char
+            private String path(String field) {
+                return "$.\"" + field.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
             }
 
             @Override
@@ -88,6 +149,324 @@ public class MySql extends Storage {
                 return new DocumentImpl(id);
             }
 
+            @Override
+            public Executor getExecutor() {
+                return MySql.this.getExecutor();
+            }
+
+            @SuppressWarnings("unchecked")
+            private Map<String, Object> parse(String json) {
+                try {
+                    return (Map<String, Object>) new JSONParser().parse(json);
+                } catch (ParseException e) {
+                    return new HashMap<>();
+                }
+            }
+
+            private String repeat(String values, int count) {
+                StringBuilder res = new StringBuilder(values);
+                for (int i = 1; i < count; i++) {
+                    res.append(", ").append(values);
+                }
+                return res.toString();
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+                List<String> list = new ArrayList<>(ids);
+                Map<String, String> found = new HashMap<>();
+                try {
+                    pool.execute(connection -> {
+                        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+                            List<String> batch = list.subList(from, Math.min(list.size(), from + BATCH_SIZE));
+                            PreparedStatement statement = connection.prepare(
+                                    "SELECT id, value FROM `" + tableId + "` WHERE id IN (" + repeat("?", batch.size()) + ");"
+                            );
+                            for (int i = 0; i < batch.size(); i++) {
+                                statement.setString(i + 1, batch.get(i));
+                            }
+                            try (ResultSet result = statement.executeQuery()) {
+                                while (result.next()) {
+                                    found.put(result.getString(1), result.getString(2));
+                                }
+                            }
+                        }
+                        return null;
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot get documents of: " + tableId, exception);
+                }
+                Map<String, Map<String, Object>> res = new HashMap<>();
+                for (Map.Entry<String, String> document : found.entrySet()) {
+                    res.put(document.getKey(), parse(document.getValue()));
+                }
+                return res;
+            }
+
+            private void loadIndexes() {
+                try {
+                    pool.execute(connection -> {
+                        PreparedStatement statement = connection.prepare(
+                                "SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+                                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME LIKE 'idx\\_%';"
+                        );
+                        statement.setString(1, tableId);
+                        try (ResultSet result = statement.executeQuery()) {
+                            while (result.next()) {
+                                indexes.add(result.getString(1).substring("idx_".length()));
+                            }
+                        }
+                        return null;
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot read the indexes of: " + tableId, exception);
+                }
+            }
+
+            /**
+             * Indexes the numeric values of the field with a virtual generated column, used by the queries that
+             * compare the field with a number, and sort by it when they do. Filters on strings and booleans still read every row.
+             *
+             * @param field the top level field, only letters, digits and underscores
+             */
+            @Override
+            public void ensureIndex(String field) {
+                if (!INDEX_FIELD.matcher(field).matches()) {
+                    throw new IllegalArgumentException("Invalid index field: " + field);
+                }
+                if (indexes.contains(field)) {
+                    return;
+                }
+                // The quoted path, as the other queries, a field can start with a digit
+                String value = "JSON_EXTRACT(value, '" + path(field) + "')";
+                String column = "`idx_" + field + "`";
+                try {
+                    pool.execute(connection -> {
+                        try (Statement statement = connection.getConnection().createStatement()) {
+                            statement.execute("ALTER TABLE `" + tableId + "` ADD COLUMN " + column + " DOUBLE AS " +
+                                    "(CASE WHEN JSON_TYPE(" + value + ") IN " + NUMBER_TYPES + " THEN JSON_UNQUOTE(" + value + ") END) VIRTUAL, " +
+                                    "ADD INDEX " + column + " (" + column + ");");
+                        }
+                        return null;
+                    });
+                } catch (SQLException exception) {
+                    if (exception.getErrorCode() != 1060) { // Duplicate column, created by someone else
+                        throw new IllegalStateException("Cannot create index: " + tableId + "." + field, exception);
+                    }
+                }
+                indexes.add(field);
+            }
+
+            // Appends the WHERE clause of the query filters
+            private void where(Query query, StringBuilder sql, List<Object> params) {
+                String separator = " WHERE ";
+                for (Query.Filter filter : query.getFilters()) {
+                    sql.append(separator);
+                    separator = " AND ";
+                    String field = filter.getField();
+                    Object value = filter.getValue();
+                    String operator = operator(filter.getOperator());
+                    if (value instanceof Number && indexes.contains(field)) {
+                        sql.append("`idx_").append(field).append("` ").append(operator).append(" ?");
+                        params.add(value);
+                    } else {
+                        // JSON values of different types are comparable in MySQL, so the type is checked first
+                        String types = value instanceof Number ? NUMBER_TYPES : value instanceof String ? "('STRING')" : "('BOOLEAN')";
+                        sql.append("JSON_TYPE(JSON_EXTRACT(value, ?)) IN ").append(types)
+                                .append(" AND JSON_EXTRACT(value, ?) ").append(operator).append(" CAST(? AS JSON)");
+                        params.add(path(field));
+                        params.add(path(field));
+                        params.add(JSONValue.toJSONString(value));
+                    }
+                }
+            }
+
+            private boolean hasNumberFilter(Query query, String field) {
+                for (Query.Filter filter : query.getFilters()) {
+                    if (filter.getField().equals(field) && filter.getValue() instanceof Number) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private String operator(Query.Operator operator) {
+                switch (operator) {
+                    case EQ:
+                        return "=";
+                    case GT:
+                        return ">";
+                    case GTE:
+                        return ">=";
+                    case LT:
+                        return "<";
+                    default:
+                        return "<=";
+                }
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> find(Query query) {
+                StringBuilder sql = new StringBuilder("SELECT id, value FROM `").append(tableId).append('`');
+                List<Object> params = new ArrayList<>();
+                where(query, sql, params);
+                if (query.getSort() != null) {
+                    // The index holds only the numbers, it sorts the field only if a filter leaves just numbers
+                    if (indexes.contains(query.getSort()) && hasNumberFilter(query, query.getSort())) {
+                        sql.append(" ORDER BY `idx_").append(query.getSort()).append('`');
+                    } else {
+                        sql.append(" ORDER BY JSON_EXTRACT(value, ?)");
+                        params.add(path(query.getSort()));
+                    }
+                    sql.append(query.isDescending() ? " DESC" : " ASC");
+                }
+                if (query.hasLimit()) {
+                    sql.append(" LIMIT ").append(query.getLimit());
+                }
+                Map<String, String> found = new LinkedHashMap<>();
+                try {
+                    pool.execute(connection -> {
+                        PreparedStatement statement = connection.prepare(sql.append(';').toString());
+                        for (int i = 0; i < params.size(); i++) {
+                            statement.setObject(i + 1, params.get(i));
+                        }
+                        try (ResultSet result = statement.executeQuery()) {
+                            while (result.next()) {
+                                found.put(result.getString(1), result.getString(2));
+                            }
+                        }
+                        return null;
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot search documents of: " + tableId, exception);
+                }
+                Map<String, Map<String, Object>> res = new LinkedHashMap<>();
+                for (Map.Entry<String, String> document : found.entrySet()) {
+                    res.put(document.getKey(), parse(document.getValue()));
+                }
+                return res;
+            }
+
+            /**
+             * Reads the documents a page of {@link #BATCH_SIZE} at a time, in id order. Every page is a separate
+             * query, so no connection is kept while the documents are used.
+             */
+            @Override
+            public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+                Iterator<Map.Entry<String, Map<String, Object>>> documents = new Iterator<Map.Entry<String, Map<String, Object>>>() {
+                    private Iterator<String[]> page = Collections.emptyIterator();
+                    private String last = null; // The last id read, null before the first page
+                    private boolean done = false;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (!page.hasNext() && !done) {
+                            List<String[]> rows = page(last);
+                            done = rows.size() < BATCH_SIZE;
+                            if (!rows.isEmpty()) {
+                                last = rows.get(rows.size() - 1)[0];
+                            }
+                            page = rows.iterator();
+                        }
+                        return page.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Map<String, Object>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        String[] row = page.next();
+                        return DatabaseUtil.entry(row[0], parse(row[1]));
+                    }
+                };
+                return DatabaseUtil.stream(documents, null);
+            }
+
+            // The id and value of the documents after the id, the seek uses the primary key
+            private List<String[]> page(String after) {
+                String sql = "SELECT id, value FROM `" + tableId + "`" + (after != null ? " WHERE id > ?" : "") +
+                        " ORDER BY id LIMIT " + BATCH_SIZE + ";";
+                try {
+                    return pool.execute(connection -> {
+                        PreparedStatement statement = connection.prepare(sql);
+                        if (after != null) {
+                            statement.setString(1, after);
+                        }
+                        List<String[]> res = new ArrayList<>(BATCH_SIZE);
+                        try (ResultSet result = statement.executeQuery()) {
+                            while (result.next()) {
+                                res.add(new String[]{result.getString(1), result.getString(2)});
+                            }
+                        }
+                        return res;
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot read documents of: " + tableId, exception);
+                }
+            }
+
+            @Override
+            public long count(Query query) {
+                StringBuilder sql = new StringBuilder("SELECT 1 FROM `").append(tableId).append('`');
+                List<Object> params = new ArrayList<>();
+                where(query, sql, params);
+                if (query.hasLimit()) {
+                    sql.append(" LIMIT ").append(query.getLimit());
+                }
+                try {
+                    return pool.execute(connection -> {
+                        PreparedStatement statement = connection.prepare("SELECT COUNT(*) FROM (" + sql + ") AS found;");
+                        for (int i = 0; i < params.size(); i++) {
+                            statement.setObject(i + 1, params.get(i));
+                        }
+                        try (ResultSet result = statement.executeQuery()) {
+                            result.next();
+                            return result.getLong(1);
+                        }
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot count documents of: " + tableId, exception);
+                }
+            }
+
+            @Override
+            public void sendAll(Map<String, Map<String, Object>> documents) {
+                List<String> ids = new ArrayList<>(documents.keySet());
+                List<String> values = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    values.add(new JSONObject(documents.get(id)).toJSONString());
+                }
+                try {
+                    pool.execute(connection -> {
+                        Connection raw = connection.getConnection();
+                        raw.setAutoCommit(false);
+                        try {
+                            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                                int size = Math.min(ids.size() - from, BATCH_SIZE);
+                                PreparedStatement statement = connection.prepare(
+                                        "REPLACE INTO `" + tableId + "` (id, value) VALUES " + repeat("(?, ?)", size) + ";"
+                                );
+                                for (int i = 0; i < size; i++) {
+                                    statement.setString(i * 2 + 1, ids.get(from + i));
+                                    statement.setString(i * 2 + 2, values.get(from + i));
+                                }
+                                statement.executeUpdate();
+                            }
+                            raw.commit();
+                        } catch (SQLException exception) {
+                            raw.rollback();
+                            throw exception;
+                        } finally {
+                            raw.setAutoCommit(true);
+                        }
+                        return null;
+                    });
+                } catch (SQLException exception) {
+                    throw new IllegalStateException("Cannot send documents of: " + tableId, exception);
+                }
+            }
+
             // Document
             public class DocumentImpl implements Document {
                 private final String documentId;
@@ -96,41 +475,147 @@ public class MySql extends Storage {
                     this.documentId = documentId;
                 }
 
-                @SuppressWarnings("unchecked")
                 @Override
                 public Map<String, Object> ask() {
                     String json;
                     try {
-                        askQuery.setString(1, tableId);
-                        askQuery.setString(2, documentId);
-                        ResultSet result = askQuery.executeQuery();
-
-                        if (result.next()) {
-                            json = result.getString(1);
-                        } else {
-                            json = "";
-                        }
+                        json = pool.execute(connection -> {
+                            PreparedStatement statement = connection.prepare(askQuery);
+                            statement.setString(1, documentId);
+                            try (ResultSet result = statement.executeQuery()) {
+                                return result.next() ? result.getString(1) : "";
+                            }
+                        });
                     } catch (SQLException exception) {
                         throw new IllegalStateException("Cannot get document: id=" + documentId, exception);
                     }
+                    return parse(json);
+                }
+
+                // Only the fields are sent by the server and parsed
+                @Override
+                public Map<String, Object> ask(String... fields) {
+                    Map<String, Object> res = new HashMap<>();
+                    if (fields.length == 0) {
+                        return res;
+                    }
+                    String[] values;
                     try {
-                        return (Map<String, Object>) new JSONParser().parse(json);
-                    } catch (ParseException e) {
-                        return new HashMap<>();
+                        values = pool.execute(connection -> {
+                            PreparedStatement statement = connection.prepare(askQuery(fields.length));
+                            for (int i = 0; i < fields.length; i++) {
+                                statement.setString(i + 1, path(fields[i]));
+                            }
+                            statement.setString(fields.length + 1, documentId);
+                            String[] found = new String[fields.length];
+                            try (ResultSet result = statement.executeQuery()) {
+                                if (result.next()) {
+                                    for (int i = 0; i < fields.length; i++) {
+                                        found[i] = result.getString(i + 1);
+                                    }
+                                }
+                            }
+                            return found;
+                        });
+                    } catch (SQLException exception) {
+                        throw new IllegalStateException("Cannot get document: id=" + documentId, exception);
+                    }
+                    for (int i = 0; i < fields.length; i++) {
+                        if (values[i] != null) { // SQL NULL if the field is missing
+                            res.put(fields[i], JSONValue.parse(values[i]));
+                        }
                     }
+                    return res;
                 }
 
                 @Override
                 public void send(Map<String, Object> data) {
+                    String json = new JSONObject(data).toJSONString();
                     try {
-                        sendQuery.setString(1, tableId);
-                        sendQuery.setString(2, documentId);
-                        sendQuery.setString(3, new JSONObject(data).toJSONString());
-                        sendQuery.executeUpdate();
+                        pool.execute(connection -> {
+                            PreparedStatement statement = connection.prepare(sendQuery);
+                            statement.setString(1, documentId);
+                            statement.setString(2, json);
+                            return statement.executeUpdate();
+                        });
                     } catch (SQLException exception) {
                         throw new IllegalStateException("Cannot send document: id=" + documentId, exception);
                     }
                 }
+
+                @Override
+                public void update(Map<String, Object> fields) {
+                    if (fields.isEmpty()) {
+                        return;
+                    }
+                    String json = new JSONObject(fields).toJSONString();
+                    try {
+                        pool.execute(connection -> {
+                            PreparedStatement statement = connection.prepare(updateQuery(fields.size()));
+                            statement.setString(1, documentId);
+                            statement.setString(2, json);
+                            int i = 3;
+                            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                                statement.setString(i++, path(field.getKey()));
+                                statement.setString(i++, JSONValue.toJSONString(field.getValue()));
+                            }
+                            return statement.executeUpdate();
+                        });
+                    } catch (SQLException exception) {
+                        throw new IllegalStateException("Cannot update document: id=" + documentId, exception);
+                    }
+                }
+
+                @Override
+                public void increment(String field, Number delta) {
+                    String json = new JSONObject(Collections.singletonMap(field, delta)).toJSONString();
+                    String path = path(field);
+                    try {
+                        pool.execute(connection -> {
+                            PreparedStatement statement;
+                            if (DatabaseUtil.isIntegral(delta)) {
+                                statement = connection.prepare(incrementIntegerQuery);
+                                statement.setString(1, documentId);
+                                statement.setString(2, json);
+                                statement.setString(3, path);
+                                statement.setString(4, path);
+                                statement.setString(5, path);
+                                statement.setLong(6, delta.longValue());
+                                statement.setString(7, path);
+                                statement.setLong(8, delta.longValue());
+                            } else {
+                                statement = connection.prepare(incrementQuery);
+                                statement.setString(1, documentId);
+                                statement.setString(2, json);
+                                statement.setString(3, path);
+                                statement.setString(4, path);
+                                statement.setDouble(5, delta.doubleValue());
+                            }
+                            return statement.executeUpdate();
+                        });
+                    } catch (SQLException exception) {
+                        throw new IllegalStateException("Cannot increment document: id=" + documentId, exception);
+                    }
+                }
+
+                @Override
+                public void unset(String field) {
+                    try {
+                        pool.execute(connection -> {
+                            PreparedStatement statement = connection.prepare(unsetQuery);
+                            statement.setString(1, path(field));
+                            statement.setString(2, documentId);
+                            return statement.executeUpdate();
+                        });
+                    } catch (SQLException exception) {
+                        throw new IllegalStateException("Cannot unset field of document: id=" + documentId, exception);
+                    }
+                }
+
+                @Override
+                public Executor getExecutor() {
+                    return MySql.this.getExecutor();
+                }
             }
         }
     }
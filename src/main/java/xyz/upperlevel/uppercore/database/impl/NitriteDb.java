@@ -1,13 +1,32 @@
 package xyz.upperlevel.uppercore.database.impl;
 
+import org.dizitart.no2.Cursor;
+import org.dizitart.no2.Filter;
+import org.dizitart.no2.FindOptions;
+import org.dizitart.no2.IndexType;
 import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.NitriteCollection;
+import org.dizitart.no2.SortOrder;
 import xyz.upperlevel.uppercore.database.*;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
+import static org.dizitart.no2.IndexOptions.indexOptions;
 import static org.dizitart.no2.UpdateOptions.updateOptions;
+import static org.dizitart.no2.filters.Filters.and;
 import static org.dizitart.no2.filters.Filters.eq;
+import static org.dizitart.no2.filters.Filters.gt;
+import static org.dizitart.no2.filters.Filters.gte;
+import static org.dizitart.no2.filters.Filters.in;
+import static org.dizitart.no2.filters.Filters.lt;
+import static org.dizitart.no2.filters.Filters.lte;
 
 public class NitriteDb extends Storage {
     public NitriteDb() {
@@ -30,7 +49,7 @@ public class NitriteDb extends Storage {
     }
 
     @Override
-    public Database onConnect(String address, int port, String database, String password, String username) {
+    public Database onConnect(String address, int port, String database, String username, String password) {
         return new DatabaseImpl(Nitrite.builder()
                 .compressed()
                 .filePath("plugins/storage/" + database + ".db")
@@ -40,6 +59,8 @@ public class NitriteDb extends Storage {
     // Database
     public class DatabaseImpl implements Database {
         private Nitrite db;
+        // The same table for the same collection, the increments lock it
+        private final Map<String, TableImpl> tables = new ConcurrentHashMap<>();
 
         public DatabaseImpl(Nitrite db) {
             this.db = db;
@@ -47,7 +68,12 @@ public class NitriteDb extends Storage {
 
         @Override
         public TableImpl table(String id) {
-            return new TableImpl(db.getCollection(id));
+            return tables.computeIfAbsent(id, name -> new TableImpl(db.getCollection(name)));
+        }
+
+        @Override
+        public void close() {
+            db.close();
         }
 
 
@@ -64,6 +90,100 @@ public class NitriteDb extends Storage {
                 return new DocumentImpl(id);
             }
 
+            @Override
+            public Executor getExecutor() {
+                return NitriteDb.this.getExecutor();
+            }
+
+            // Only the ids are in memory, the documents are read while iterating
+            @Override
+            public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+                return DatabaseUtil.stream(table.find().iterator(), null)
+                        .map(document -> DatabaseUtil.entry(String.valueOf(document.get("_id")), document));
+            }
+
+            @Override
+            public void ensureIndex(String field) {
+                if (!table.hasIndex(field)) {
+                    table.createIndex(field, indexOptions(IndexType.NonUnique));
+                }
+            }
+
+            // Null if the query has no filters
+            private Filter filter(Query query) {
+                if (query.getFilters().isEmpty()) {
+                    return null;
+                }
+                Filter[] res = new Filter[query.getFilters().size()];
+                for (int i = 0; i < res.length; i++) {
+                    Query.Filter filter = query.getFilters().get(i);
+                    String field = filter.getField();
+                    Object value = filter.getValue();
+                    switch (filter.getOperator()) {
+                        case EQ:
+                            res[i] = eq(field, value);
+                            break;
+                        case GT:
+                            res[i] = gt(field, value);
+                            break;
+                        case GTE:
+                            res[i] = gte(field, value);
+                            break;
+                        case LT:
+                            res[i] = lt(field, value);
+                            break;
+                        default:
+                            res[i] = lte(field, value);
+                    }
+                }
+                return res.length == 1 ? res[0] : and(res);
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> find(Query query) {
+                Map<String, Map<String, Object>> res = new LinkedHashMap<>();
+                if (query.getLimit() == 0) {
+                    return res;
+                }
+                FindOptions options = null;
+                if (query.getSort() != null) {
+                    options = FindOptions.sort(query.getSort(), query.isDescending() ? SortOrder.Descending : SortOrder.Ascending);
+                }
+                if (query.hasLimit()) {
+                    options = options == null ? FindOptions.limit(0, query.getLimit()) : options.thenLimit(0, query.getLimit());
+                }
+                Filter filter = filter(query);
+                Cursor cursor;
+                if (options == null) {
+                    cursor = filter == null ? table.find() : table.find(filter);
+                } else {
+                    cursor = filter == null ? table.find(options) : table.find(filter, options);
+                }
+                for (org.dizitart.no2.Document document : cursor) {
+                    res.put(String.valueOf(document.get("_id")), document);
+                }
+                return res;
+            }
+
+            @Override
+            public long count(Query query) {
+                Filter filter = filter(query);
+                long res = (filter == null ? table.find() : table.find(filter)).size();
+                return query.hasLimit() ? Math.min(res, query.getLimit()) : res;
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+                Map<String, Map<String, Object>> res = new HashMap<>();
+                if (ids.isEmpty()) {
+                    return res;
+                }
+                for (org.dizitart.no2.Document document : table.find(in("_id", ids.toArray()))) {
+                    res.put(String.valueOf(document.get("_id")), document);
+                }
+                return res;
+            }
+
             // Document
             public class DocumentImpl implements Document {
                 private String id;
@@ -77,10 +197,52 @@ public class NitriteDb extends Storage {
                     return table.find(eq("_id", id)).firstOrDefault();
                 }
 
+                @Override
+                public Map<String, Object> ask(String... fields) {
+                    if (fields.length == 0) {
+                        return new HashMap<>();
+                    }
+                    org.dizitart.no2.Document projection = new org.dizitart.no2.Document();
+                    for (String field : fields) {
+                        projection.put(field, null);
+                    }
+                    return table.find(eq("_id", id)).project(projection).firstOrDefault();
+                }
+
                 @Override
                 public void send(Map<String, Object> data) {
                     table.update(eq("_id", id), new org.dizitart.no2.Document(data).put("_id", id), updateOptions(true));
                 }
+
+                // Nitrite merges the fields into the stored document
+                @Override
+                public void update(Map<String, Object> fields) {
+                    if (fields.isEmpty()) {
+                        return;
+                    }
+                    // The id is set for the upsert, else a missing document would get a generated one
+                    table.update(eq("_id", id), new org.dizitart.no2.Document(fields).put("_id", id), updateOptions(true));
+                }
+
+                @Override
+                public void increment(String field, Number delta) {
+                    synchronized (TableImpl.this) {
+                        Map<String, Object> data = ask();
+                        Object value = data == null ? null : data.get(field);
+                        update(Collections.singletonMap(field, DatabaseUtil.add(value, delta)));
+                    }
+                }
+
+                // Merged updates cannot remove fields, the field is set to null instead
+                @Override
+                public void unset(String field) {
+                    table.update(eq("_id", id), new org.dizitart.no2.Document(Collections.singletonMap(field, null)));
+                }
+
+                @Override
+                public Executor getExecutor() {
+                    return NitriteDb.this.getExecutor();
+                }
             }
         }
     }
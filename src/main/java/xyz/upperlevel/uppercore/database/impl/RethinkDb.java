@@ -2,18 +2,36 @@ package xyz.upperlevel.uppercore.database.impl;
 
 import com.rethinkdb.gen.ast.Db;
 import com.rethinkdb.gen.ast.Get;
+import com.rethinkdb.gen.ast.ReqlExpr;
+import com.rethinkdb.model.OptArgs;
 import com.rethinkdb.net.Connection;
 import com.rethinkdb.net.Connection.Builder;
+import com.rethinkdb.net.Cursor;
 import xyz.upperlevel.uppercore.database.Database;
+import xyz.upperlevel.uppercore.database.DatabaseUtil;
 import xyz.upperlevel.uppercore.database.Document;
+import xyz.upperlevel.uppercore.database.Query;
 import xyz.upperlevel.uppercore.database.Storage;
 import xyz.upperlevel.uppercore.database.Table;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import static com.rethinkdb.RethinkDB.r;
 
 public class RethinkDb extends Storage {
+    // Documents sent by the server at a time while streaming a table
+    public static final int STREAM_BATCH_SIZE = 500;
+
     public RethinkDb() {
         super("rethinkdb");
     }
@@ -36,7 +54,7 @@ public class RethinkDb extends Storage {
     }
 
     @Override
-    public Database onConnect(String address, int port, String database, String password, String username) {
+    public Database onConnect(String address, int port, String database, String username, String password) {
         // Connection
         Builder builder = r.connection()
                 .hostname(address)
@@ -72,12 +90,20 @@ public class RethinkDb extends Storage {
             return new TableImpl(db.table(id));
         }
 
+        @Override
+        public void close() {
+            connection.close();
+        }
+
         // Table
         public class TableImpl implements Table {
             private final com.rethinkdb.gen.ast.Table table;
+            private final Set<String> indexes = ConcurrentHashMap.newKeySet();
 
+            @SuppressWarnings("unchecked")
             public TableImpl(com.rethinkdb.gen.ast.Table table) {
                 this.table = table;
+                this.indexes.addAll((List<String>) table.indexList().run(connection));
             }
 
             @Override
@@ -89,6 +115,132 @@ public class RethinkDb extends Storage {
                 return new DocumentImpl(id, table.get(id));
             }
 
+            @Override
+            public Executor getExecutor() {
+                return RethinkDb.this.getExecutor();
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> askAll(Collection<String> ids) {
+                Map<String, Map<String, Object>> res = new HashMap<>();
+                if (ids.isEmpty()) {
+                    return res;
+                }
+                collect(table.getAll(new HashSet<>(ids).toArray()).run(connection), res);
+                return res;
+            }
+
+            // Puts the documents of a cursor or list in the map by their id
+            @SuppressWarnings("unchecked")
+            private void collect(Object result, Map<String, Map<String, Object>> res) {
+                try {
+                    for (Object document : (Iterable<Object>) result) {
+                        Map<String, Object> data = (Map<String, Object>) document;
+                        res.put(String.valueOf(data.get("id")), data);
+                    }
+                } finally {
+                    if (result instanceof Cursor) {
+                        ((Cursor<?>) result).close();
+                    }
+                }
+            }
+
+            @Override
+            public Stream<Map.Entry<String, Map<String, Object>>> stream() {
+                Cursor<Map<String, Object>> cursor = table.run(connection, OptArgs.of("max_batch_rows", STREAM_BATCH_SIZE));
+                return DatabaseUtil.stream(cursor, cursor::close)
+                        .map(document -> DatabaseUtil.entry(String.valueOf(document.get("id")), document));
+            }
+
+            @Override
+            public void ensureIndex(String field) {
+                if (indexes.contains(field)) {
+                    return;
+                }
+                try {
+                    table.indexCreate(field).run(connection);
+                } catch (Exception ignored) { // Already created by someone else
+                }
+                table.indexWait(field).run(connection);
+                indexes.add(field);
+            }
+
+            // The filters of the query, sorted by the index of the field if asked and there's any
+            private ReqlExpr select(Query query, boolean sorted) {
+                ReqlExpr res = table;
+                String sort = query.getSort();
+                if (sorted && sort != null && indexes.contains(sort)) {
+                    res = table.orderBy().optArg("index", query.isDescending() ? r.desc(sort) : r.asc(sort));
+                }
+                for (Query.Filter filter : query.getFilters()) {
+                    res = res.filter(row -> condition(row.g(filter.getField()), filter));
+                }
+                return res;
+            }
+
+            // ReQL values of different types are comparable, so the type is checked first
+            private ReqlExpr condition(ReqlExpr field, Query.Filter filter) {
+                Object value = filter.getValue();
+                String type = value instanceof Number ? "NUMBER" : value instanceof String ? "STRING" : "BOOL";
+                ReqlExpr compare;
+                switch (filter.getOperator()) {
+                    case EQ:
+                        compare = field.eq(value);
+                        break;
+                    case GT:
+                        compare = field.gt(value);
+                        break;
+                    case GTE:
+                        compare = field.ge(value);
+                        break;
+                    case LT:
+                        compare = field.lt(value);
+                        break;
+                    default:
+                        compare = field.le(value);
+                }
+                return field.typeOf().eq(type).and(compare);
+            }
+
+            @Override
+            public Map<String, Map<String, Object>> find(Query query) {
+                ReqlExpr selection = select(query, true);
+                String sort = query.getSort();
+                if (sort != null && !indexes.contains(sort)) {
+                    selection = selection.orderBy(query.isDescending() ? r.desc(sort) : r.asc(sort));
+                }
+                if (query.hasLimit()) {
+                    selection = selection.limit(query.getLimit());
+                }
+                Map<String, Map<String, Object>> res = new LinkedHashMap<>();
+                collect(selection.run(connection), res);
+                return res;
+            }
+
+            @Override
+            public long count(Query query) {
+                ReqlExpr selection = select(query, false);
+                if (query.hasLimit()) {
+                    selection = selection.limit(query.getLimit());
+                }
+                return selection.count().<Number>run(connection).longValue();
+            }
+
+            @Override
+            public void sendAll(Map<String, Map<String, Object>> documents) {
+                if (documents.isEmpty()) {
+                    return;
+                }
+                List<Map<String, Object>> batch = new ArrayList<>(documents.size());
+                for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+                    Map<String, Object> data = new HashMap<>(document.getValue());
+                    data.put("id", document.getKey());
+                    batch.add(data);
+                }
+                // A single insert, existing documents are replaced
+                table.insert(batch).optArg("conflict", "replace").run(connection);
+            }
+
             // Document
             public class DocumentImpl implements Document {
                 private final String id;
@@ -104,11 +256,44 @@ public class RethinkDb extends Storage {
                     return document.run(connection);
                 }
 
+                @Override
+                public Map<String, Object> ask(String... fields) {
+                    if (fields.length == 0) {
+                        return new HashMap<>();
+                    }
+                    // pluck fails on a missing document
+                    return r.branch(document.eq(null), null, document.pluck((Object[]) fields)).run(connection);
+                }
+
                 @Override
                 public void send(Map<String, Object> data) {
                     data.put("id", id);
                     document.replace(data).run(connection);
                 }
+
+                // The documents are created by document(id), so they can always be updated
+                @Override
+                public void update(Map<String, Object> fields) {
+                    if (fields.isEmpty()) {
+                        return;
+                    }
+                    document.update(fields).run(connection);
+                }
+
+                @Override
+                public void increment(String field, Number delta) {
+                    document.update(row -> r.hashMap(field, row.g(field).default_(0).add(delta))).run(connection);
+                }
+
+                @Override
+                public void unset(String field) {
+                    document.replace(row -> row.without(field)).run(connection);
+                }
+
+                @Override
+                public Executor getExecutor() {
+                    return RethinkDb.this.getExecutor();
+                }
             }
         }
     }
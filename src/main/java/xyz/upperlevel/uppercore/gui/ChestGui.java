@@ -12,7 +12,9 @@ import xyz.upperlevel.uppercore.config.Config;
 import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
 import xyz.upperlevel.uppercore.gui.link.Link;
 import xyz.upperlevel.uppercore.itemstack.ItemResolver;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderWatcher.Subscription;
 import xyz.upperlevel.uppercore.task.UpdaterTask;
 
 import java.util.*;
@@ -32,6 +34,7 @@ public class ChestGui implements Gui {
     @Getter
     private int updateInterval = -1;
     private final Map<Player, UpdaterTask> updaters = new HashMap<>();
+    private final Map<Player, Subscription> subscriptions = new HashMap<>();
 
     /**
      * Initializes the gui by copying another gui
@@ -238,6 +241,8 @@ public class ChestGui implements Gui {
             } else {
                 updaters.forEach((p, t) -> t.stop());
                 updaters.clear();
+                subscriptions.forEach((p, s) -> s.cancel());
+                subscriptions.clear();
             }
         }
     }
@@ -265,11 +270,40 @@ public class ChestGui implements Gui {
     }
 
     protected void startUpdateTask(Player player) {
+        // Redraw only when a placeholder changes, if all of them can be watched
+        // Without placeholders the content is driven from code, so the timer is kept
+        Collection<String> tokens = getPlaceholderTokens();
+        if (tokens != null && !tokens.isEmpty()) {
+            Subscription subscription = PlaceholderUtil.getWatcher().subscribe(player, tokens, null, () -> onUpdate(player));
+            if (subscription != null) {
+                subscriptions.put(player, subscription);
+                return;
+            }
+        }
         UpdaterTask task = new UpdaterTask(updateInterval, () -> onUpdate(player));
         updaters.put(player, task);
         task.start();
     }
 
+    /**
+     * Returns the placeholder tokens used by the title and the icons, null if some of them aren't known.
+     */
+    public Collection<String> getPlaceholderTokens() {
+        Collection<String> titleTokens = title.getPlaceholderTokens();
+        if (titleTokens == null)
+            return null;
+        Set<String> res = new HashSet<>(titleTokens);
+        for (ConfigIcon icon : icons) {
+            if (icon == null || icon.getDisplay() == null)
+                continue;
+            Collection<String> tokens = icon.getDisplay().getPlaceholderTokens();
+            if (tokens == null)
+                return null;
+            res.addAll(tokens);
+        }
+        return res;
+    }
+
     protected void onUpdate(Player player) {
         guis().reprint(player);
     }
@@ -286,6 +320,9 @@ public class ChestGui implements Gui {
         UpdaterTask task = updaters.remove(player);
         if (task != null)
             task.stop();
+        Subscription subscription = subscriptions.remove(player);
+        if (subscription != null)
+            subscription.cancel();
     }
 
     /**
@@ -5,6 +5,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import xyz.upperlevel.uppercore.gui.ConfigIcon;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderWatcher.Subscription;
 import xyz.upperlevel.uppercore.task.UpdaterTask;
 
 import java.util.*;
@@ -23,6 +25,7 @@ public class HotbarView {
     private final Set<Hotbar> hotbars = new HashSet<>();
     @Getter
     private final Map<ConfigIcon, UpdaterTask> updaters = new HashMap<>(); // one updater per hotbar
+    private final Map<ConfigIcon, Subscription> subscriptions = new HashMap<>();
 
     // takes care of slots held by hotbars
     @Getter
@@ -113,6 +116,8 @@ public class HotbarView {
         slotsByHotbar.clear();
         updaters.values().forEach(UpdaterTask::stop);
         updaters.clear();
+        subscriptions.values().forEach(Subscription::cancel);
+        subscriptions.clear();
     }
 
     public ConfigIcon getIcon(int slot) {
@@ -178,9 +183,14 @@ public class HotbarView {
         hotbarsBySlot[slot] = hotbar;
         printSlot(slot);
         if (icon.needUpdate() && getIconsCount(icon) == 1) {
-            UpdaterTask task = new UpdaterTask(icon.getUpdateInterval(), () -> printIcon(icon));
-            updaters.put(icon, task);
-            task.start();
+            Subscription subscription = PlaceholderUtil.getWatcher().subscribe(player, icon.getDisplay().getPlaceholderTokens(), null, () -> printIcon(icon));
+            if (subscription != null) {
+                subscriptions.put(icon, subscription);
+            } else {
+                UpdaterTask task = new UpdaterTask(icon.getUpdateInterval(), () -> printIcon(icon));
+                updaters.put(icon, task);
+                task.start();
+            }
         }
     }
 
@@ -199,6 +209,9 @@ public class HotbarView {
             UpdaterTask task = updaters.remove(icon);
             if (task != null)
                 task.stop();
+            Subscription subscription = subscriptions.remove(icon);
+            if (subscription != null)
+                subscription.cancel();
         }
         icons[slot] = null;
         if (update)
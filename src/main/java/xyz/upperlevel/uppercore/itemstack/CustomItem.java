@@ -124,13 +124,55 @@ public class CustomItem implements ItemResolver {
     public void processMeta(Player player, ItemMeta meta) {
         if (displayName != null)
             meta.setDisplayName(displayName.resolve(player, placeholders));
-        meta.setLore(lore.stream().map(m -> m.resolve(player, placeholders)).collect(Collectors.toList()));
+        meta.setLore(PlaceholderUtil.resolveAll(player, placeholders, lore));
         meta.addItemFlags(flags.toArray(new ItemFlag[0]));
         for (Map.Entry<Enchantment, PlaceholderValue<Integer>> ench : enchantments.entrySet())
             meta.addEnchant(ench.getKey(), ench.getValue().resolve(player), true);
     }
 
 
+    @Override
+    public Collection<String> getPlaceholderTokens() {
+        Set<String> res = new HashSet<>();
+        if (!addPlaceholderTokens(res))
+            return null;
+        // Local placeholders can't be changed (nor watched) by the global ones
+        if (placeholders != null && !PlaceholderUtil.getWatcher().isWatchable(res, placeholders))
+            return null;
+        return res;
+    }
+
+    /**
+     * Adds the placeholder tokens used by the item.
+     *
+     * @param res where to add the tokens
+     * @return false if some of the tokens aren't known
+     */
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        if (!addPlaceholderTokens(res, data) || !addPlaceholderTokens(res, amount) || !addPlaceholderTokens(res, displayName))
+            return false;
+        for (PlaceholderValue<String> line : lore) {
+            if (!addPlaceholderTokens(res, line))
+                return false;
+        }
+        for (PlaceholderValue<Integer> level : enchantments.values()) {
+            if (!addPlaceholderTokens(res, level))
+                return false;
+        }
+        return true;
+    }
+
+    protected static boolean addPlaceholderTokens(Set<String> res, PlaceholderValue<?> value) {
+        if (value == null)
+            return true;
+        Collection<String> tokens = value.getPlaceholderTokens();
+        if (tokens == null)
+            return false;
+        res.addAll(tokens);
+        return true;
+    }
+
+
     public static void registerDefCustomDeserializers() {
         registerCustomDeserializer(BannerCustomItem::new, Material.BANNER);
         registerCustomDeserializer(SkullCustomItem::new, Material.SKULL_ITEM);
@@ -3,7 +3,16 @@ package xyz.upperlevel.uppercore.itemstack;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Collection;
+
 public interface ItemResolver {
 
     ItemStack resolve(Player player);
+
+    /**
+     * Returns the placeholder tokens (without the '%') used by the item, null if they aren't known.
+     */
+    default Collection<String> getPlaceholderTokens() {
+        return null;
+    }
 }
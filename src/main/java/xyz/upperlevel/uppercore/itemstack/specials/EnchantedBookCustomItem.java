@@ -14,6 +14,7 @@ import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class EnchantedBookCustomItem extends CustomItem {
 
@@ -43,4 +44,15 @@ public class EnchantedBookCustomItem extends CustomItem {
         for(Map.Entry<Enchantment, PlaceholderValue<Integer>> ench : storedEnchantments.entrySet())
             meta.addStoredEnchant(ench.getKey(), ench.getValue().resolve(player), true);
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        if (!super.addPlaceholderTokens(res))
+            return false;
+        for (PlaceholderValue<Integer> level : storedEnchantments.values()) {
+            if (!addPlaceholderTokens(res, level))
+                return false;
+        }
+        return true;
+    }
 }
@@ -15,6 +15,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class FireworkCustomItem extends CustomItem {
@@ -42,4 +43,9 @@ public class FireworkCustomItem extends CustomItem {
         if(power != null)
             meta.setPower(power.resolve(player));
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        return super.addPlaceholderTokens(res) && addPlaceholderTokens(res, power);
+    }
 }
@@ -10,6 +10,8 @@ import xyz.upperlevel.uppercore.itemstack.CustomItem;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
 
+import java.util.Set;
+
 public class LeatherArmorCustomItem extends CustomItem {
 
     private PlaceholderValue<Color> color;
@@ -26,4 +28,9 @@ public class LeatherArmorCustomItem extends CustomItem {
         if(color != null)
             meta.setColor(color.resolve(player));
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        return super.addPlaceholderTokens(res) && addPlaceholderTokens(res, color);
+    }
 }
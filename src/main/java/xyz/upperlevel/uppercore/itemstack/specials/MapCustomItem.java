@@ -10,6 +10,8 @@ import xyz.upperlevel.uppercore.itemstack.CustomItem;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
 
+import java.util.Set;
+
 public class MapCustomItem extends CustomItem {
 
     private boolean scaling;
@@ -33,4 +35,9 @@ public class MapCustomItem extends CustomItem {
         if(displayMapColor != null)
             meta.setColor(displayMapColor.resolve(player));
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        return super.addPlaceholderTokens(res) && addPlaceholderTokens(res, displayLocName) && addPlaceholderTokens(res, displayMapColor);
+    }
 }
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class PotionCustomItem extends CustomItem {
 
@@ -48,4 +49,9 @@ public class PotionCustomItem extends CustomItem {
         for(PotionEffect e : customEffects)
             meta.addCustomEffect(e, true);
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        return super.addPlaceholderTokens(res) && addPlaceholderTokens(res, customColor);
+    }
 }
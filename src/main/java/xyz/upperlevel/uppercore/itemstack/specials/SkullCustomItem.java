@@ -9,6 +9,8 @@ import xyz.upperlevel.uppercore.itemstack.CustomItem;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
 
+import java.util.Set;
+
 public class SkullCustomItem extends CustomItem {
 
     private PlaceholderValue<String> skullOwner;
@@ -25,4 +27,9 @@ public class SkullCustomItem extends CustomItem {
         if(skullOwner != null)
             meta.setOwner(skullOwner.resolve(player, getPlaceholders()));
     }
+
+    @Override
+    protected boolean addPlaceholderTokens(Set<String> res) {
+        return super.addPlaceholderTokens(res) && addPlaceholderTokens(res, skullOwner);
+    }
 }
@@ -0,0 +1,210 @@
+package xyz.upperlevel.uppercore.nms.impl;
+
+import xyz.upperlevel.uppercore.nms.NmsPacket;
+import xyz.upperlevel.uppercore.nms.NmsVersion;
+import xyz.upperlevel.uppercore.nms.exceptions.UnsupportedVersionException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import static xyz.upperlevel.uppercore.nms.NmsUtil.handleException;
+
+/**
+ * Builds the scoreboard packets (objective, display, score and team) without any server-side scoreboard.
+ * <br>
+ * Supports the 1.8 - 1.12 packet layout.
+ */
+public final class ScoreboardNms {
+    public static final int OBJECTIVE_CREATE = 0;
+    public static final int OBJECTIVE_REMOVE = 1;
+    public static final int OBJECTIVE_UPDATE = 2;
+
+    public static final int SLOT_SIDEBAR = 1;
+
+    public static final int TEAM_CREATE = 0;
+    public static final int TEAM_REMOVE = 1;
+    public static final int TEAM_UPDATE = 2;
+    public static final int TEAM_ADD_ENTRIES = 3;
+    public static final int TEAM_REMOVE_ENTRIES = 4;
+
+    //-----------------objective
+    private static final Constructor<?> objectiveConstructor;
+    private static final Field objectiveName, objectiveDisplayName, objectiveHealthDisplay, objectiveMode;
+    private static final Object healthDisplayInteger;
+    //-----------------display
+    private static final Constructor<?> displayConstructor;
+    private static final Field displaySlot, displayName;
+    //-----------------score
+    private static final Constructor<?> scoreConstructor;
+    private static final Field scoreEntry, scoreObjective, scoreValue, scoreAction;
+    private static final Object actionChange, actionRemove;
+    //-----------------team
+    private static final Constructor<?> teamConstructor;
+    private static final Field teamName, teamDisplayName, teamPrefix, teamSuffix, teamNameTagVisibility, teamCollisionRule;
+    private static final Field teamColor, teamEntries, teamMode, teamFlags;
+
+    static {
+        try {
+            if (NmsVersion.MINOR >= 13) {
+                throw new IllegalStateException("Scoreboard packets changed in 1.13");
+            }
+            Class<?> objective = NmsPacket.NMS.getClass("PacketPlayOutScoreboardObjective");
+            objectiveConstructor = objective.getConstructor();
+            objectiveName = field(objective, "a");
+            objectiveDisplayName = field(objective, "b");
+            objectiveHealthDisplay = field(objective, "c");
+            objectiveMode = field(objective, "d");
+            healthDisplayInteger = objectiveHealthDisplay.getType().getEnumConstants()[0];
+
+            Class<?> display = NmsPacket.NMS.getClass("PacketPlayOutScoreboardDisplayObjective");
+            displayConstructor = display.getConstructor();
+            displaySlot = field(display, "a");
+            displayName = field(display, "b");
+
+            Class<?> score = NmsPacket.NMS.getClass("PacketPlayOutScoreboardScore");
+            scoreConstructor = score.getConstructor();
+            scoreEntry = field(score, "a");
+            scoreObjective = field(score, "b");
+            scoreValue = field(score, "c");
+            scoreAction = field(score, "d");
+            Object[] actions = scoreAction.getType().getEnumConstants();
+            actionChange = actions[0];
+            actionRemove = actions[1];
+
+            Class<?> team = NmsPacket.NMS.getClass("PacketPlayOutScoreboardTeam");
+            teamConstructor = team.getConstructor();
+            teamName = field(team, "a");
+            teamDisplayName = field(team, "b");
+            teamPrefix = field(team, "c");
+            teamSuffix = field(team, "d");
+            teamNameTagVisibility = field(team, "e");
+            if (NmsVersion.MINOR >= 9) {
+                teamCollisionRule = field(team, "f");
+                teamColor = field(team, "g");
+                teamEntries = field(team, "h");
+                teamMode = field(team, "i");
+                teamFlags = field(team, "j");
+            } else {
+                teamCollisionRule = null;
+                teamColor = field(team, "f");
+                teamEntries = field(team, "g");
+                teamMode = field(team, "h");
+                teamFlags = field(team, "i");
+            }
+        } catch (Exception e) {
+            throw new UnsupportedVersionException(e);
+        }
+    }
+
+    private static Field field(Class<?> clazz, String name) throws NoSuchFieldException {
+        Field res = clazz.getDeclaredField(name);
+        res.setAccessible(true);
+        return res;
+    }
+
+    /**
+     * Creates a packet that creates, removes or updates a sidebar objective.
+     *
+     * @param name        the objective name (max 16 chars)
+     * @param displayName the title shown to the player (max 32 chars)
+     * @param mode        one of OBJECTIVE_CREATE, OBJECTIVE_REMOVE and OBJECTIVE_UPDATE
+     * @return the objective packet
+     */
+    public static Object objectivePacket(String name, String displayName, int mode) {
+        try {
+            Object packet = objectiveConstructor.newInstance();
+            objectiveName.set(packet, name);
+            objectiveDisplayName.set(packet, displayName);
+            objectiveHealthDisplay.set(packet, healthDisplayInteger);
+            objectiveMode.setInt(packet, mode);
+            return packet;
+        } catch (Exception e) {
+            handleException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a packet that shows the objective in the given slot.
+     *
+     * @param slot the display slot (ex. SLOT_SIDEBAR)
+     * @param name the objective name
+     * @return the display packet
+     */
+    public static Object displayPacket(int slot, String name) {
+        try {
+            Object packet = displayConstructor.newInstance();
+            displaySlot.setInt(packet, slot);
+            displayName.set(packet, name);
+            return packet;
+        } catch (Exception e) {
+            handleException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a packet that sets (or removes) the score of an entry.
+     *
+     * @param entry     the entry
+     * @param objective the objective name
+     * @param score     the score, ignored on remove
+     * @param remove    true to remove the entry from the objective
+     * @return the score packet
+     */
+    public static Object scorePacket(String entry, String objective, int score, boolean remove) {
+        try {
+            Object packet = scoreConstructor.newInstance();
+            scoreEntry.set(packet, entry);
+            scoreObjective.set(packet, objective);
+            scoreValue.setInt(packet, score);
+            scoreAction.set(packet, remove ? actionRemove : actionChange);
+            return packet;
+        } catch (Exception e) {
+            handleException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a team packet.
+     *
+     * @param name    the team name (max 16 chars)
+     * @param prefix  the team prefix (max 16 chars), used by TEAM_CREATE and TEAM_UPDATE
+     * @param suffix  the team suffix (max 16 chars), used by TEAM_CREATE and TEAM_UPDATE
+     * @param entries the entries, used by TEAM_CREATE, TEAM_ADD_ENTRIES and TEAM_REMOVE_ENTRIES
+     * @param mode    one of the TEAM_* modes
+     * @return the team packet
+     */
+    public static Object teamPacket(String name, String prefix, String suffix, Collection<String> entries, int mode) {
+        try {
+            Object packet = teamConstructor.newInstance();
+            teamName.set(packet, name);
+            teamMode.setInt(packet, mode);
+            if (mode == TEAM_CREATE || mode == TEAM_UPDATE) {
+                teamDisplayName.set(packet, name);
+                teamPrefix.set(packet, prefix);
+                teamSuffix.set(packet, suffix);
+                teamNameTagVisibility.set(packet, "always");
+                if (teamCollisionRule != null) {
+                    teamCollisionRule.set(packet, "always");
+                }
+                teamColor.setInt(packet, -1);
+                teamFlags.setInt(packet, 0);
+            }
+            if (entries != null && (mode == TEAM_CREATE || mode == TEAM_ADD_ENTRIES || mode == TEAM_REMOVE_ENTRIES)) {
+                @SuppressWarnings("unchecked")
+                Collection<String> packetEntries = (Collection<String>) teamEntries.get(packet);
+                packetEntries.addAll(entries);
+            }
+            return packet;
+        } catch (Exception e) {
+            handleException(e);
+            return null;
+        }
+    }
+
+    private ScoreboardNms() {
+    }
+}
@@ -0,0 +1,131 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import xyz.upperlevel.uppercore.Uppercore;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * A placeholder whose values are loaded off the main thread.
+ * <br>
+ * Resolving never blocks: it returns the last loaded value (or the default one if nothing has been
+ * loaded yet) and, if that value is older than the refresh interval, schedules a new load on the
+ * placeholder workers (stale-while-revalidate). Use it for placeholders backed by databases, economies
+ * or remote services.
+ */
+public abstract class AsyncPlaceholder implements Placeholder, Listener {
+    private static final UUID NO_PLAYER = new UUID(0, 0);
+
+    @Getter
+    private final String id;
+    @Getter
+    private final int refreshInterval; // In ticks, as given to the constructor
+    private final long refreshMillis;
+    @Getter
+    private final String defaultValue;
+
+    private final Map<UUID, Map<String, Value>> values = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an async placeholder.
+     *
+     * @param id              the placeholder id
+     * @param refreshInterval the ticks after which a loaded value is reloaded
+     * @param defaultValue    the value shown until the first load completes
+     */
+    public AsyncPlaceholder(String id, int refreshInterval, String defaultValue) {
+        this.id = id;
+        this.refreshInterval = refreshInterval;
+        this.refreshMillis = refreshInterval * 50L;
+        this.defaultValue = defaultValue;
+    }
+
+    public AsyncPlaceholder(String id, int refreshInterval) {
+        this(id, refreshInterval, "");
+    }
+
+    /**
+     * Loads the value of the placeholder, it's called by a worker thread (never the main one).
+     *
+     * @param player the player the value is loaded for, may be null
+     * @param arg    the placeholder argument
+     * @return the loaded value
+     * @throws Exception if the value cannot be loaded, the last value will be kept
+     */
+    protected abstract String load(Player player, String arg) throws Exception;
+
+    @Override
+    public String resolve(Player player, String arg) {
+        Map<String, Value> playerValues = values.computeIfAbsent(
+                player == null ? NO_PLAYER : player.getUniqueId(),
+                uuid -> new ConcurrentHashMap<>()
+        );
+        Value value = playerValues.computeIfAbsent(arg == null ? "" : arg, a -> new Value());
+        if (System.currentTimeMillis() - value.loadedAt >= refreshMillis && value.loading.compareAndSet(false, true)) {
+            try {
+                PlaceholderUtil.getExecutor().execute(() -> refresh(value, player, arg));
+            } catch (RejectedExecutionException e) {
+                // The workers are shutting down
+                value.loading.set(false);
+            }
+        }
+        return value.value != null ? value.value : defaultValue;
+    }
+
+    private void refresh(Value value, Player player, String arg) {
+        try {
+            value.value = load(player, arg);
+        } catch (Exception e) {
+            Uppercore.logger().log(Level.WARNING, "Cannot load async placeholder '" + id + "'", e);
+        } finally {
+            value.loadedAt = System.currentTimeMillis();
+            value.loading.set(false);
+        }
+    }
+
+    /**
+     * Drops the loaded values of the player, they will be loaded again on the next resolve.
+     */
+    public void invalidate(Player player) {
+        values.remove(player.getUniqueId());
+    }
+
+    /**
+     * Drops every loaded value.
+     */
+    public void invalidate() {
+        values.clear();
+    }
+
+    /**
+     * Starts listening for the players that quit, called when the placeholder gets registered.
+     */
+    public void enable(Plugin plugin) {
+        HandlerList.unregisterAll(this);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        invalidate(e.getPlayer());
+    }
+
+    private static class Value {
+        private volatile String value;
+        private volatile long loadedAt = Long.MIN_VALUE / 2;
+        private final AtomicBoolean loading = new AtomicBoolean();
+    }
+}
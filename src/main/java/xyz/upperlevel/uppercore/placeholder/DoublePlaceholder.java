@@ -0,0 +1,19 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A placeholder whose value is a decimal number.
+ * <br>
+ * Numeric values made only of this placeholder (ex. "%player_health%") read it directly, without building a
+ * string and parsing it back.
+ */
+public interface DoublePlaceholder extends Placeholder {
+
+    double resolveDouble(Player player, String arg);
+
+    @Override
+    default String resolve(Player player, String arg) {
+        return Double.toString(resolveDouble(player, arg));
+    }
+}
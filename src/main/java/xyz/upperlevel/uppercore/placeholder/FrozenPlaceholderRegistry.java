@@ -0,0 +1,129 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import java.util.Map;
+
+/**
+ * A compact, array-backed registry whose placeholders cannot be changed.
+ * <br>
+ * Meant for small local sets (1 to 8 placeholders): lookups are a linear scan on precomputed hashes and,
+ * when the parent is frozen too, its placeholders are copied in so that a miss falls back to the global
+ * registry in a single step.
+ */
+public final class FrozenPlaceholderRegistry implements PlaceholderRegistry<FrozenPlaceholderRegistry> {
+    private final String[] ids;
+    private final int[] hashes;
+    private final Placeholder[] placeholders;
+    private PlaceholderRegistry parent;
+
+    private FrozenPlaceholderRegistry(PlaceholderRegistry parent, String[] ids, Placeholder[] placeholders) {
+        if (parent instanceof FrozenPlaceholderRegistry) {
+            // Flatten the chain: our placeholders first, so they hide the parent's ones
+            FrozenPlaceholderRegistry frozen = (FrozenPlaceholderRegistry) parent;
+            String[] allIds = new String[ids.length + frozen.ids.length];
+            Placeholder[] all = new Placeholder[allIds.length];
+            System.arraycopy(ids, 0, allIds, 0, ids.length);
+            System.arraycopy(frozen.ids, 0, allIds, ids.length, frozen.ids.length);
+            System.arraycopy(placeholders, 0, all, 0, placeholders.length);
+            System.arraycopy(frozen.placeholders, 0, all, placeholders.length, frozen.placeholders.length);
+            ids = allIds;
+            placeholders = all;
+            parent = frozen.parent;
+        }
+        this.ids = ids;
+        this.placeholders = placeholders;
+        this.parent = parent;
+        this.hashes = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            hashes[i] = ids[i].hashCode();
+        }
+    }
+
+    @Override
+    public PlaceholderRegistry getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(PlaceholderRegistry parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public Placeholder getLocal(String key) {
+        int hash = key.hashCode();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == hash && ids[i].equals(key))
+                return placeholders[i];
+        }
+        return null;
+    }
+
+    @Override
+    public Placeholder get(String key) {
+        Placeholder p = getLocal(key);
+        return p != null ? p : parent != null ? parent.get(key) : null;
+    }
+
+    @Override
+    public boolean has(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public FrozenPlaceholderRegistry set(Placeholder placeholder) {
+        throw new UnsupportedOperationException("Frozen placeholder registries cannot be changed");
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Creates a frozen registry on top of the global one.
+     *
+     * @param idsAndValues the placeholder ids alternated with their (constant) values
+     * @return the frozen registry
+     */
+    public static FrozenPlaceholderRegistry of(String... idsAndValues) {
+        return of(PlaceholderUtil.getRegistry(), idsAndValues);
+    }
+
+    /**
+     * Creates a frozen registry on top of the given parent.
+     *
+     * @param parent       the parent registry, may be null
+     * @param idsAndValues the placeholder ids alternated with their (constant) values
+     * @return the frozen registry
+     */
+    public static FrozenPlaceholderRegistry of(PlaceholderRegistry parent, String... idsAndValues) {
+        if ((idsAndValues.length & 1) != 0)
+            throw new IllegalArgumentException("Every placeholder id needs its value");
+        int size = idsAndValues.length / 2;
+        String[] ids = new String[size];
+        Placeholder[] placeholders = new Placeholder[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = idsAndValues[i * 2];
+            placeholders[i] = Placeholder.of(ids[i], idsAndValues[i * 2 + 1]);
+        }
+        return new FrozenPlaceholderRegistry(parent, ids, placeholders);
+    }
+
+    /**
+     * Creates a frozen registry with a copy of the given placeholders.
+     *
+     * @param parent       the parent registry, may be null
+     * @param placeholders the placeholders by id
+     * @return the frozen registry
+     */
+    public static FrozenPlaceholderRegistry of(PlaceholderRegistry parent, Map<String, Placeholder> placeholders) {
+        String[] ids = new String[placeholders.size()];
+        Placeholder[] values = new Placeholder[ids.length];
+        int i = 0;
+        for (Map.Entry<String, Placeholder> entry : placeholders.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new FrozenPlaceholderRegistry(parent, ids, values);
+    }
+}
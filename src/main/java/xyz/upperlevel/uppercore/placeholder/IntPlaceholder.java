@@ -0,0 +1,19 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A placeholder whose value is an integer.
+ * <br>
+ * Numeric values made only of this placeholder (ex. "%player_level%") read it directly, without building a
+ * string and parsing it back.
+ */
+public interface IntPlaceholder extends Placeholder {
+
+    int resolveInt(Player player, String arg);
+
+    @Override
+    default String resolve(Player player, String arg) {
+        return Integer.toString(resolveInt(player, arg));
+    }
+}
@@ -0,0 +1,95 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A placeholder that remembers its values for a fixed amount of ticks.
+ * <br>
+ * Values are kept for every (player, argument) pair, values resolved without a player are never memoized.
+ */
+public class MemoizedPlaceholder implements Placeholder {
+    private final PlaceholderMemoizer memoizer;
+    @Getter
+    private final Placeholder handle;
+    @Getter
+    private final int ticks;
+
+    private final Map<UUID, Map<String, Value>> values = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    MemoizedPlaceholder(PlaceholderMemoizer memoizer, Placeholder handle, int ticks) {
+        this.memoizer = memoizer;
+        this.handle = handle;
+        this.ticks = ticks;
+    }
+
+    @Override
+    public String getId() {
+        return handle.getId();
+    }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return handle.getDependencies();
+    }
+
+    @Override
+    public String resolve(Player player, String arg) {
+        if (player == null || !memoizer.isEnabled())
+            return handle.resolve(player, arg);
+        long now = memoizer.getTick();
+        Map<String, Value> playerValues = values.computeIfAbsent(player.getUniqueId(), id -> new ConcurrentHashMap<>());
+        String key = arg == null ? "" : arg;
+        Value value = playerValues.get(key);
+        if (value != null && now < value.expiry) {
+            hits.incrementAndGet();
+            memoizer.hit();
+            return value.value;
+        }
+        misses.incrementAndGet();
+        memoizer.miss();
+        String res = handle.resolve(player, arg);
+        playerValues.put(key, new Value(res, now + ticks));
+        return res;
+    }
+
+    public void invalidate(Player player) {
+        values.remove(player.getUniqueId());
+    }
+
+    public void invalidate() {
+        values.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private static class Value {
+        private final String value;
+        private final long expiry;
+
+        Value(String value, long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+    }
+}
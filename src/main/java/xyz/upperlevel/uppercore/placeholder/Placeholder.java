@@ -2,6 +2,8 @@ package xyz.upperlevel.uppercore.placeholder;
 
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -15,6 +17,17 @@ public interface Placeholder {
 
     String resolve(Player player, String arg);
 
+    /**
+     * Returns what can change the value of the placeholder, used by the {@link PlaceholderWatcher}.
+     * <br>
+     * An empty collection means that the value never changes, null (the default) means that it could change at any time.
+     *
+     * @return the dependencies of the placeholder
+     */
+    default Collection<PlaceholderDependency> getDependencies() {
+        return null;
+    }
+
     static Placeholder of(String id, String obj) {
         return new Placeholder() {
             @Override
@@ -26,6 +39,11 @@ public interface Placeholder {
             public String resolve(Player player, String arg) {
                 return obj;
             }
+
+            @Override
+            public Collection<PlaceholderDependency> getDependencies() {
+                return Collections.emptyList();
+            }
         };
     }
 
@@ -0,0 +1,108 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.player.PlayerEvent;
+
+import java.util.function.Function;
+
+/**
+ * Something that can change the value of a placeholder.
+ * <br>
+ * Placeholders declare their dependencies (see {@link Placeholder#getDependencies()}) so that the
+ * {@link PlaceholderWatcher} can tell the boards and guis when to redraw instead of redrawing them on a timer.
+ */
+public interface PlaceholderDependency {
+
+    /**
+     * The value changes when the event is called for a player.
+     *
+     * @param type the event class
+     * @return the dependency
+     */
+    static PlaceholderDependency event(Class<? extends PlayerEvent> type) {
+        return new EventDependency<>(type, PlayerEvent::getPlayer);
+    }
+
+    /**
+     * The value changes when the event is called.
+     *
+     * @param type   the event class
+     * @param player gets the player whose value changed, if it returns null the value changed for every player
+     * @return the dependency
+     */
+    static <E extends Event> PlaceholderDependency event(Class<E> type, Function<E, Player> player) {
+        return new EventDependency<>(type, player);
+    }
+
+    /**
+     * The value changes when the attribute of the player does, the attribute is checked every tick.
+     *
+     * @param attribute gets the attribute from the player
+     * @return the dependency
+     */
+    static PlaceholderDependency attribute(Function<Player, ?> attribute) {
+        return new AttributeDependency(attribute, 1);
+    }
+
+    /**
+     * The value changes when the attribute of the player does, the attribute is checked every given ticks.
+     *
+     * @param attribute gets the attribute from the player
+     * @param interval  the ticks between two checks
+     * @return the dependency
+     */
+    static PlaceholderDependency attribute(Function<Player, ?> attribute, int interval) {
+        return new AttributeDependency(attribute, interval);
+    }
+
+    /**
+     * The value changes only when {@link PlaceholderUtil#invalidate(String)} (or its per-player version) is called.
+     *
+     * @return the dependency
+     */
+    static PlaceholderDependency manual() {
+        return ManualDependency.INSTANCE;
+    }
+
+    @Getter
+    class EventDependency<E extends Event> implements PlaceholderDependency {
+        private final Class<E> type;
+        private final Function<E, Player> player;
+
+        public EventDependency(Class<E> type, Function<E, Player> player) {
+            this.type = type;
+            this.player = player;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Player getPlayer(Event event) {
+            return player.apply((E) event);
+        }
+    }
+
+    @Getter
+    class AttributeDependency implements PlaceholderDependency {
+        private final Function<Player, ?> attribute;
+        private final int interval;
+
+        public AttributeDependency(Function<Player, ?> attribute, int interval) {
+            if (interval < 1)
+                throw new IllegalArgumentException("Attribute check interval must be positive: " + interval);
+            this.attribute = attribute;
+            this.interval = interval;
+        }
+
+        public Object get(Player player) {
+            return attribute.apply(player);
+        }
+    }
+
+    class ManualDependency implements PlaceholderDependency {
+        public static final ManualDependency INSTANCE = new ManualDependency();
+
+        private ManualDependency() {
+        }
+    }
+}
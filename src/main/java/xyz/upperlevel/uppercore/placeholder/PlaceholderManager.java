@@ -17,6 +17,16 @@ public interface PlaceholderManager {
 
     boolean hasPlaceholders(String str);
 
+    /**
+     * Checks if the token (without the '%') can be resolved by the manager's placeholders, local ones excluded.
+     *
+     * @param token the placeholder token
+     * @return false only if the token surely cannot be resolved
+     */
+    default boolean isKnown(String token) {
+        return true;
+    }
+
     String apply(Player player, String text, PlaceholderRegistry registry);
 
     default String apply(Player player, String text) {
@@ -30,4 +40,19 @@ public interface PlaceholderManager {
     default String single(Player player, String string, PlaceholderRegistry registry) {
         return apply(player, '%' + string + '%', registry);
     }
+
+    /**
+     * Resolves a single placeholder token (without the '%') reading its value with the reader.
+     *
+     * @param player   the player that executes the placeholder
+     * @param string   the token to resolve
+     * @param registry the registry used to find the placeholder
+     * @param reader   the reader of the value
+     * @return the value of the placeholder or null if it cannot be found
+     * @throws RuntimeException if the placeholder fails or its value cannot be read
+     */
+    default <T> T single(Player player, String string, PlaceholderRegistry registry, PlaceholderReader<T> reader) {
+        String res = single(player, string, registry);
+        return res != null ? reader.parse(res) : null;
+    }
 }
@@ -0,0 +1,118 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import xyz.upperlevel.uppercore.task.UpdaterTask;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the server tick count and the placeholders that memoize their values.
+ * <br>
+ * A memoized placeholder remembers the value resolved for every (player, argument) pair for a
+ * number of ticks, so the same placeholder used by the board, the hotbar and the guis is resolved
+ * only once per tick. Memoization is opt-in, see {@link PlaceholderUtil#memoize(Placeholder, int)}.
+ */
+public class PlaceholderMemoizer implements Listener {
+    private final Set<MemoizedPlaceholder> placeholders = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Getter
+    private volatile long tick;
+    @Getter
+    private volatile boolean enabled;
+    private UpdaterTask task;
+
+    public void enable(Plugin plugin) {
+        if (enabled)
+            disable();
+        task = new UpdaterTask(1, () -> tick++);
+        task.start(false);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        enabled = true;
+    }
+
+    public void disable() {
+        if (!enabled)
+            return;
+        enabled = false;
+        task.stop();
+        task = null;
+        HandlerList.unregisterAll(this);
+        invalidate();
+    }
+
+    /**
+     * Wraps the placeholder so that its values are remembered for the given ticks.
+     *
+     * @param placeholder the placeholder to memoize
+     * @param ticks       how many ticks a value lasts, 1 means only for the current tick
+     * @return the memoized placeholder
+     */
+    public MemoizedPlaceholder memoize(Placeholder placeholder, int ticks) {
+        if (ticks < 1)
+            throw new IllegalArgumentException("Memoization ticks must be positive: " + ticks);
+        MemoizedPlaceholder res = new MemoizedPlaceholder(this, placeholder, ticks);
+        placeholders.add(res);
+        return res;
+    }
+
+    public void forget(MemoizedPlaceholder placeholder) {
+        placeholders.remove(placeholder);
+    }
+
+    /**
+     * Drops every memoized value of the player.
+     */
+    public void invalidate(Player player) {
+        for (MemoizedPlaceholder placeholder : placeholders)
+            placeholder.invalidate(player);
+    }
+
+    /**
+     * Drops every memoized value.
+     */
+    public void invalidate() {
+        for (MemoizedPlaceholder placeholder : placeholders)
+            placeholder.invalidate();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        for (MemoizedPlaceholder placeholder : placeholders)
+            placeholder.resetStats();
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        invalidate(e.getPlayer());
+    }
+}
@@ -0,0 +1,102 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long every placeholder takes to resolve.
+ * <br>
+ * It's disabled by default (timing every resolution isn't free), once enabled every placeholder resolved by
+ * the manager is recorded by its id: invocations, total and max nanoseconds and errors.
+ */
+public class PlaceholderProfiler {
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private volatile boolean enabled = false;
+
+    public void record(String id, long nanos, boolean error) {
+        Stats res = stats.get(id);
+        if (res == null)
+            res = stats.computeIfAbsent(id, Stats::new);
+        res.record(nanos, error);
+    }
+
+    public Stats get(String id) {
+        return stats.get(id);
+    }
+
+    public List<Stats> getAll() {
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * Returns the placeholders that took the longest on average.
+     *
+     * @param count the max number of placeholders to return
+     * @return the slowest placeholders, the slowest first
+     */
+    public List<Stats> getSlowest(int count) {
+        List<Stats> res = getAll();
+        res.sort(Comparator.comparingDouble(Stats::getAverageNanos).reversed());
+        return res.size() > count ? res.subList(0, count) : res;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    public static class Stats {
+        @Getter
+        private final String id;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder errors = new LongAdder();
+
+        public Stats(String id) {
+            this.id = id;
+        }
+
+        void record(long nanos, boolean error) {
+            count.increment();
+            totalNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // Someone else updated it, try again
+            }
+            if (error)
+                errors.increment();
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public double getAverageNanos() {
+            long c = getCount();
+            return c == 0 ? 0 : (double) getTotalNanos() / c;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+import org.bukkit.util.StringUtil;
+import xyz.upperlevel.uppercore.command.Command;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderProfiler.Stats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Admin command that controls the {@link PlaceholderProfiler} and dumps the slowest placeholders.
+ */
+public class PlaceholderProfilerCommand extends Command {
+    public static final int DEFAULT_TOP = 10;
+    private static final List<String> ACTIONS = Arrays.asList("top", "start", "stop", "reset");
+
+    public PlaceholderProfilerCommand() {
+        super("placeholderprofiler");
+        setPermissionPortion(new Permission("uppercore.placeholderprofiler", "Allows to profile the placeholders", PermissionDefault.OP));
+    }
+
+    @Override
+    public String getUsage(CommandSender sender) {
+        return "[top [count]|start|stop|reset]";
+    }
+
+    @Override
+    protected boolean onCall(CommandSender sender, List<String> arguments) {
+        PlaceholderProfiler profiler = PlaceholderUtil.getProfiler();
+        String action = arguments.isEmpty() ? "top" : arguments.get(0).toLowerCase();
+        switch (action) {
+            case "start":
+                profiler.setEnabled(true);
+                sender.sendMessage(ChatColor.GREEN + "Placeholder profiler started");
+                return true;
+            case "stop":
+                profiler.setEnabled(false);
+                sender.sendMessage(ChatColor.GREEN + "Placeholder profiler stopped");
+                return true;
+            case "reset":
+                profiler.reset();
+                sender.sendMessage(ChatColor.GREEN + "Placeholder profiler data cleared");
+                return true;
+            case "top":
+                int count = DEFAULT_TOP;
+                if (arguments.size() > 1) {
+                    try {
+                        count = Integer.parseInt(arguments.get(1));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.RED + "Invalid number: " + arguments.get(1));
+                        return false;
+                    }
+                }
+                printTop(sender, profiler, count);
+                return true;
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /" + getHelpline(sender));
+                return false;
+        }
+    }
+
+    private void printTop(CommandSender sender, PlaceholderProfiler profiler, int count) {
+        List<Stats> slowest = profiler.getSlowest(count);
+        if (slowest.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No placeholder recorded" + (profiler.isEnabled() ? "" : ", start the profiler first"));
+            return;
+        }
+        sender.sendMessage(ChatColor.GOLD + "Slowest placeholders" + (profiler.isEnabled() ? "" : " (profiler stopped)") + ":");
+        for (Stats stats : slowest) {
+            sender.sendMessage(String.format(
+                    "%s%s%s: %d calls, avg %.1fµs, max %.1fµs, total %.1fms, %s%d errors",
+                    ChatColor.YELLOW, stats.getId(), ChatColor.GRAY,
+                    stats.getCount(),
+                    stats.getAverageNanos() / 1e3,
+                    stats.getMaxNanos() / 1e3,
+                    stats.getTotalNanos() / 1e6,
+                    stats.getErrors() > 0 ? ChatColor.RED : ChatColor.GRAY,
+                    stats.getErrors()
+            ));
+        }
+    }
+
+    @Override
+    public List<String> suggest(CommandSender sender, List<String> arguments) {
+        if (arguments.size() != 1)
+            return Collections.emptyList();
+        return ACTIONS.stream()
+                .filter(action -> StringUtil.startsWithIgnoreCase(action, arguments.get(0)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,95 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Reads the value of a placeholder as a {@code T}.
+ * <br>
+ * By default the placeholder is resolved to a string and then parsed, readers of numeric types take the value
+ * directly from {@link IntPlaceholder}s and {@link DoublePlaceholder}s.
+ *
+ * @param <T> the type of the value
+ */
+public interface PlaceholderReader<T> {
+    PlaceholderReader<String> STRING = str -> str;
+
+    PlaceholderReader<Integer> INT = new PlaceholderReader<Integer>() {
+        @Override
+        public Integer parse(String str) {
+            return Integer.parseInt(str);
+        }
+
+        @Override
+        public Integer read(Placeholder placeholder, Player player, String arg) {
+            if (placeholder instanceof IntPlaceholder)
+                return ((IntPlaceholder) placeholder).resolveInt(player, arg);
+            return parse(placeholder.resolve(player, arg));
+        }
+    };
+
+    PlaceholderReader<Long> LONG = new PlaceholderReader<Long>() {
+        @Override
+        public Long parse(String str) {
+            return Long.parseLong(str);
+        }
+
+        @Override
+        public Long read(Placeholder placeholder, Player player, String arg) {
+            if (placeholder instanceof IntPlaceholder)
+                return (long) ((IntPlaceholder) placeholder).resolveInt(player, arg);
+            return parse(placeholder.resolve(player, arg));
+        }
+    };
+
+    PlaceholderReader<Float> FLOAT = new PlaceholderReader<Float>() {
+        @Override
+        public Float parse(String str) {
+            return Float.parseFloat(str);
+        }
+
+        @Override
+        public Float read(Placeholder placeholder, Player player, String arg) {
+            if (placeholder instanceof DoublePlaceholder)
+                return (float) ((DoublePlaceholder) placeholder).resolveDouble(player, arg);
+            if (placeholder instanceof IntPlaceholder)
+                return (float) ((IntPlaceholder) placeholder).resolveInt(player, arg);
+            return parse(placeholder.resolve(player, arg));
+        }
+    };
+
+    PlaceholderReader<Double> DOUBLE = new PlaceholderReader<Double>() {
+        @Override
+        public Double parse(String str) {
+            return Double.parseDouble(str);
+        }
+
+        @Override
+        public Double read(Placeholder placeholder, Player player, String arg) {
+            if (placeholder instanceof DoublePlaceholder)
+                return ((DoublePlaceholder) placeholder).resolveDouble(player, arg);
+            if (placeholder instanceof IntPlaceholder)
+                return (double) ((IntPlaceholder) placeholder).resolveInt(player, arg);
+            return parse(placeholder.resolve(player, arg));
+        }
+    };
+
+    /**
+     * Parses an already resolved string.
+     *
+     * @param str the resolved string
+     * @return the parsed value
+     */
+    T parse(String str);
+
+    /**
+     * Resolves the placeholder and reads its value.
+     *
+     * @param placeholder the placeholder to resolve
+     * @param player      the player that executes the placeholder
+     * @param arg         the placeholder argument
+     * @return the value of the placeholder
+     */
+    default T read(Placeholder placeholder, Player player, String arg) {
+        return parse(placeholder.resolve(player, arg));
+    }
+}
@@ -0,0 +1,39 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+/**
+ * Finds the placeholders ({@code %token%}) in a string without using regular expressions.
+ * <br>
+ * The rules are the same of the pattern {@code %([^%]+)%}: a token is made of at least one character and
+ * a "%%" sequence is not a placeholder, its second '%' may still open one.
+ */
+public final class PlaceholderScanner {
+
+    private PlaceholderScanner() {
+    }
+
+    /**
+     * Finds the next placeholder, its closing '%' is the first one after the returned index.
+     *
+     * @param str  the string to scan
+     * @param from the index where to start the scan
+     * @return the index of the opening '%' or -1 if no placeholder is found
+     */
+    public static int find(String str, int from) {
+        int start = str.indexOf('%', from);
+        while (start >= 0) {
+            int end = str.indexOf('%', start + 1);
+            if (end < 0) {
+                return -1;
+            }
+            if (end > start + 1) {
+                return start;
+            }
+            start = end;
+        }
+        return -1;
+    }
+
+    public static boolean hasPlaceholders(String str) {
+        return find(str, 0) >= 0;
+    }
+}
@@ -0,0 +1,163 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A string compiled once into literal segments and placeholder slots.
+ * <br>
+ * Resolving a template does not scan the string again, it just concatenates the literals with the
+ * resolved placeholders into a per-thread reused buffer.
+ */
+public final class PlaceholderTemplate {
+    private static final int MAX_BUFFER_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> buffers = new ThreadLocal<>();
+
+    // Even indexes are literals, odd indexes are placeholder tokens (without the '%')
+    private final String[] parts;
+    private final int length;
+
+    private PlaceholderTemplate(String[] parts, int length) {
+        this.parts = parts;
+        this.length = length;
+    }
+
+    /**
+     * Returns true only if the template contains at least a placeholder.
+     */
+    public boolean hasPlaceholders() {
+        return parts.length > 1;
+    }
+
+    /**
+     * Returns the placeholder tokens (without the '%') used in the template.
+     */
+    public List<String> getTokens() {
+        List<String> res = new ArrayList<>(parts.length / 2);
+        for (int i = 1; i < parts.length; i += 2) {
+            res.add(parts[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Returns the token (without the '%') if the whole template is a single placeholder, null otherwise.
+     */
+    public String getSingleToken() {
+        return parts.length == 3 && parts[0].isEmpty() && parts[2].isEmpty() ? parts[1] : null;
+    }
+
+    /**
+     * Resolves the placeholders of the template and builds the final string.
+     *
+     * @param player   the player that executes the placeholders
+     * @param registry the registry used to find the placeholders
+     * @return the resolved string
+     */
+    public String resolve(Player player, PlaceholderRegistry registry) {
+        return resolve(player, registry, null);
+    }
+
+    /**
+     * Resolves the placeholders of the template and builds the final string, sharing the resolved tokens
+     * with other templates resolved for the same player and registry.
+     *
+     * @param player   the player that executes the placeholders
+     * @param registry the registry used to find the placeholders
+     * @param resolved the tokens already resolved (filled with the new ones), null to resolve every token
+     * @return the resolved string
+     */
+    public String resolve(Player player, PlaceholderRegistry registry, Map<String, String> resolved) {
+        if (registry == null) {
+            registry = PlaceholderUtil.getRegistry();
+        }
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        if (parts.length == 3 && parts[0].isEmpty() && parts[2].isEmpty()) {
+            // Just one placeholder, no need to copy anything
+            String res = single(player, parts[1], registry, resolved);
+            return res != null ? res : '%' + parts[1] + '%';
+        }
+
+        StringBuilder res = buffers.get();
+        if (res == null) {
+            // Nested resolution (or first use in this thread), the shared buffer is busy
+            res = new StringBuilder(length + 16);
+        } else {
+            buffers.set(null);
+        }
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if ((i & 1) == 0) {
+                    res.append(parts[i]);
+                } else {
+                    String replacement = single(player, parts[i], registry, resolved);
+                    if (replacement != null) {
+                        res.append(replacement);
+                    } else {
+                        res.append('%').append(parts[i]).append('%');
+                    }
+                }
+            }
+            return res.toString();
+        } finally {
+            if (res.capacity() <= MAX_BUFFER_CAPACITY) {
+                res.setLength(0);
+                buffers.set(res);
+            }
+        }
+    }
+
+    private static String single(Player player, String token, PlaceholderRegistry registry, Map<String, String> resolved) {
+        if (resolved == null) {
+            return PlaceholderUtil.single(player, token, registry);
+        }
+        String res = resolved.get(token);
+        if (res == null && !resolved.containsKey(token)) {
+            res = PlaceholderUtil.single(player, token, registry);
+            resolved.put(token, res);
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder(length);
+        for (int i = 0; i < parts.length; i++) {
+            if ((i & 1) == 0) {
+                res.append(parts[i]);
+            } else {
+                res.append('%').append(parts[i]).append('%');
+            }
+        }
+        return res.toString();
+    }
+
+    /**
+     * Compiles the string into a template, the placeholders are found only once.
+     *
+     * @param string the string to compile
+     * @return the compiled template
+     */
+    public static PlaceholderTemplate compile(String string) {
+        int start = PlaceholderScanner.find(string, 0);
+        if (start < 0) {
+            return new PlaceholderTemplate(new String[]{string}, string.length());
+        }
+        List<String> parts = new ArrayList<>();
+        int last = 0;
+        do {
+            int end = string.indexOf('%', start + 1);
+            parts.add(string.substring(last, start));
+            parts.add(string.substring(start + 1, end));
+            last = end + 1;
+            start = PlaceholderScanner.find(string, last);
+        } while (start >= 0);
+        parts.add(string.substring(last));
+        return new PlaceholderTemplate(parts.toArray(new String[0]), string.length());
+    }
+}
@@ -1,5 +1,7 @@
 package xyz.upperlevel.uppercore.placeholder;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -9,8 +11,30 @@ import xyz.upperlevel.uppercore.placeholder.events.PlaceholderManagerHookEvent;
 import xyz.upperlevel.uppercore.placeholder.managers.CustomPlaceholderManager;
 import xyz.upperlevel.uppercore.placeholder.managers.OfficialPlaceholderManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public final class PlaceholderUtil {
     private static PlaceholderManager manager = null;
+    private static final PlaceholderMemoizer memoizer = new PlaceholderMemoizer();
+    private static final PlaceholderWatcher watcher = new PlaceholderWatcher();
+    private static final PlaceholderProfiler profiler = new PlaceholderProfiler();
+    public static final int WORKERS = 2;
+    private static volatile ExecutorService executor = null;
+
+    @Getter
+    @Setter
+    private static boolean unknownWarnings = false;
+    private static final Set<String> localIds = ConcurrentHashMap.newKeySet();
+    private static final Set<String> warned = ConcurrentHashMap.newKeySet();
 
     private PlaceholderUtil() {
     }
@@ -64,6 +88,8 @@ public final class PlaceholderUtil {
     }
 
     public static void tryHook() {
+        memoizer.enable(Uppercore.get());
+        watcher.enable(Uppercore.get());
         PlaceholderManagerHookEvent event = new PlaceholderManagerHookEvent();
         Bukkit.getPluginManager().callEvent(event);
         if (event.getPlaceholderManager() != null) {
@@ -78,6 +104,39 @@ public final class PlaceholderUtil {
         }
     }
 
+    public static void disable() {
+        memoizer.disable();
+        watcher.disable();
+        synchronized (PlaceholderUtil.class) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the workers that load the {@link AsyncPlaceholder}s, created on first use.
+     */
+    public static ExecutorService getExecutor() {
+        ExecutorService res = executor;
+        if (res == null) {
+            synchronized (PlaceholderUtil.class) {
+                res = executor;
+                if (res == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    res = Executors.newFixedThreadPool(WORKERS, task -> {
+                        Thread thread = new Thread(task, "Uppercore Placeholder Worker #" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor = res;
+                }
+            }
+        }
+        return res;
+    }
+
     public static void register(Plugin plugin, Placeholder placeholder) {
         manager.register(plugin, placeholder);
     }
@@ -95,6 +154,51 @@ public final class PlaceholderUtil {
         return manager.apply(player, str, local);
     }
 
+    /**
+     * Resolves many values for the same player at once, every placeholder token is resolved only once across
+     * the whole batch.
+     *
+     * @param player the player that executes the placeholders
+     * @param local  the local placeholders, null to use only the global ones
+     * @param values the values to resolve
+     * @return the resolved values, in the same order
+     */
+    public static List<String> resolveAll(Player player, PlaceholderRegistry local, List<PlaceholderValue<String>> values) {
+        if (local == null)
+            local = getRegistry();
+        List<String> res = new ArrayList<>(values.size());
+        Map<String, String> resolved = null;
+        for (PlaceholderValue<String> value : values) {
+            if (value instanceof PlaceholderValue.StringPlaceholderValue) {
+                if (resolved == null)
+                    resolved = new HashMap<>();
+                res.add(((PlaceholderValue.StringPlaceholderValue) value).getTemplate().resolve(player, local, resolved));
+            } else {
+                res.add(value.resolve(player, local));
+            }
+        }
+        return res;
+    }
+
+    public static String single(Player player, String id, PlaceholderRegistry local) {
+        return manager.single(player, id, local);
+    }
+
+    /**
+     * Resolves a single placeholder token reading its value with the reader, numeric readers skip the string
+     * conversion when the placeholder is typed (ex. {@link IntPlaceholder}).
+     *
+     * @param player the player that executes the placeholder
+     * @param id     the placeholder token (without the '%')
+     * @param local  the local placeholders
+     * @param reader the reader of the value
+     * @return the value of the placeholder or null if it cannot be found
+     * @throws RuntimeException if the placeholder fails or its value cannot be read
+     */
+    public static <T> T single(Player player, String id, PlaceholderRegistry local, PlaceholderReader<T> reader) {
+        return manager.single(player, id, local, reader);
+    }
+
     public static String placeholder(Player player, String str) {
         return manager.apply(player, str);
     }
@@ -103,6 +207,94 @@ public final class PlaceholderUtil {
         return manager.hasPlaceholders(str);
     }
 
+    /**
+     * Declares placeholder ids that are only given as local placeholders (ex. "killer"), so that they aren't
+     * reported as unknown.
+     *
+     * @param ids the local placeholder ids
+     */
+    public static void addLocalIds(String... ids) {
+        Collections.addAll(localIds, ids);
+    }
+
+    /**
+     * Warns (once per token) about the tokens of the template that no placeholder can resolve, it does nothing
+     * unless the unknown warnings are enabled.
+     *
+     * @param template the template loaded
+     */
+    public static void checkUnknown(PlaceholderTemplate template) {
+        if (!unknownWarnings || manager == null)
+            return;
+        for (String token : template.getTokens()) {
+            if (!isLocal(token) && !manager.isKnown(token) && warned.add(token)) {
+                Uppercore.logger().warning("Unknown placeholder %" + token + "% in \"" + template + "\"");
+            }
+        }
+    }
+
+    private static boolean isLocal(String token) {
+        if (localIds.contains(token))
+            return true;
+        for (int i = token.indexOf('_'); i >= 0; i = token.indexOf('_', i + 1)) {
+            if (localIds.contains(token.substring(0, i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Memoizes the placeholder values until the end of the current tick.
+     *
+     * @param placeholder the placeholder to memoize
+     * @return the memoized placeholder, to be registered in place of the original one
+     */
+    public static MemoizedPlaceholder memoize(Placeholder placeholder) {
+        return memoizer.memoize(placeholder, 1);
+    }
+
+    /**
+     * Memoizes the placeholder values for the given ticks.
+     *
+     * @param placeholder the placeholder to memoize
+     * @param ticks       how many ticks every value lasts
+     * @return the memoized placeholder, to be registered in place of the original one
+     */
+    public static MemoizedPlaceholder memoize(Placeholder placeholder, int ticks) {
+        return memoizer.memoize(placeholder, ticks);
+    }
+
+    public static PlaceholderMemoizer getMemoizer() {
+        return memoizer;
+    }
+
+    public static PlaceholderProfiler getProfiler() {
+        return profiler;
+    }
+
+    public static PlaceholderWatcher getWatcher() {
+        return watcher;
+    }
+
+    /**
+     * Notifies the watchers that the placeholder changed for every player.
+     *
+     * @param id the placeholder id
+     */
+    public static void invalidate(String id) {
+        watcher.invalidate(id);
+    }
+
+    /**
+     * Notifies the watchers that the placeholder changed for the player.
+     *
+     * @param player the player
+     * @param id     the placeholder id
+     */
+    public static void invalidate(Player player, String id) {
+        watcher.invalidate(player, id);
+    }
+
     public static PlaceholderRegistry getRegistry() {
         return manager.getRegistry();
     }
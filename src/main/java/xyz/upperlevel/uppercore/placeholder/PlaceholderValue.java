@@ -10,6 +10,8 @@ import xyz.upperlevel.uppercore.config.ConfigUtil;
 import xyz.upperlevel.uppercore.sound.CompatibleSound;
 import xyz.upperlevel.uppercore.util.TextUtil;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -41,6 +43,13 @@ public interface PlaceholderValue<T> {
         return true;
     }
 
+    /**
+     * Returns the placeholder tokens (without the '%') used by the value, null if they aren't known.
+     */
+    default Collection<String> getPlaceholderTokens() {
+        return null;
+    }
+
 
     String toString();
 
@@ -54,36 +63,33 @@ public interface PlaceholderValue<T> {
     }
 
     static PlaceholderValue<Integer> intValue(String string) {
-        return value(string, Integer::parseInt, -1);
+        return typedValue(string, PlaceholderReader.INT, -1);
     }
 
     static PlaceholderValue<Long> longValue(String string) {
-        return value(string, Long::parseLong, -1L);
+        return typedValue(string, PlaceholderReader.LONG, -1L);
     }
 
     static PlaceholderValue<Float> floatValue(String string) {
-        return value(string, Float::parseFloat, -1.0f);
+        return typedValue(string, PlaceholderReader.FLOAT, -1.0f);
     }
 
     static PlaceholderValue<Double> doubleValue(String string) {
-        return value(string, Double::parseDouble, -1.0);
+        return typedValue(string, PlaceholderReader.DOUBLE, -1.0);
     }
 
     static PlaceholderValue<String> rawStringValue(String string) {
         if (string == null) return null;
-        if (PlaceholderUtil.hasPlaceholders(string))
-            return new StringPlaceholderValue(string);
+        PlaceholderTemplate template = PlaceholderTemplate.compile(string);
+        if (template.hasPlaceholders())
+            return new StringPlaceholderValue(string, template);
         else
             return new FalsePlaceholderValue<>(string);
     }
 
     static PlaceholderValue<String> stringValue(String string) {
         if (string == null) return null;
-        string = TextUtil.translatePlain(string);
-        if (PlaceholderUtil.hasPlaceholders(string))
-            return new StringPlaceholderValue(string);
-        else
-            return new FalsePlaceholderValue<>(string);
+        return rawStringValue(TextUtil.translatePlain(string));
     }
 
     static PlaceholderValue<Color> colorValue(String string) {
@@ -99,16 +105,29 @@ public interface PlaceholderValue<T> {
     }
 
     static <T> PlaceholderValue<T> value(String string, Function<String, T> parser, T onError) {
+        return typedValue(string, parser::apply, onError);
+    }
+
+    /**
+     * Creates a value read by the reader, when the value is a single placeholder the reader takes it
+     * directly from the placeholder (ex. an {@link IntPlaceholder} read by {@link PlaceholderReader#INT}).
+     *
+     * @param string  the raw value
+     * @param reader  the reader that parses the value
+     * @param onError the value used when it cannot be parsed
+     * @return the placeholder value
+     */
+    static <T> PlaceholderValue<T> typedValue(String string, PlaceholderReader<T> reader, T onError) {
         if (string == null) return null;
         T parsed;
         try {
-            parsed = parser.apply(string);
+            parsed = reader.parse(string);
         } catch (Exception e) {
-            if (!PlaceholderUtil.hasPlaceholders(string)) {
+            if (!PlaceholderScanner.hasPlaceholders(string)) {
                 Uppercore.logger().severe("Invalid value: " + string);
                 return new FalsePlaceholderValue<>(onError);
             }
-            return new SimplePlaceholderValue<>(string, parser, (str, exc) -> Uppercore.logger().severe("Cannot parse value: '" + str + "' (from '" + string + "')"), onError);
+            return new SimplePlaceholderValue<>(string, reader, (str, exc) -> Uppercore.logger().severe("Cannot parse value: '" + str + "' (from '" + string + "')"), onError);
         }
         return new FalsePlaceholderValue<>(parsed);
     }
@@ -136,36 +155,67 @@ public interface PlaceholderValue<T> {
         public boolean hasPlaceholders() {
             return false;
         }
+
+        @Override
+        public Collection<String> getPlaceholderTokens() {
+            return Collections.emptyList();
+        }
     }
 
     class SimplePlaceholderValue<T> implements PlaceholderValue<T> {
         @Getter
         private final String value;
+        private final PlaceholderTemplate template;
+        private final String token; // Set when the whole value is a single placeholder
 
-        private final Function<String, T> parser;
+        private final PlaceholderReader<T> reader;
         private final BiConsumer<String, Exception> exceptionHandler;
         private final T onError;
 
         public SimplePlaceholderValue(String value, Function<String, T> parser, BiConsumer<String, Exception> exceptionHandler, T onError) {
+            this(value, (PlaceholderReader<T>) parser::apply, exceptionHandler, onError);
+        }
+
+        public SimplePlaceholderValue(String value, PlaceholderReader<T> reader, BiConsumer<String, Exception> exceptionHandler, T onError) {
             this.value = value;
-            this.parser = parser;
+            this.template = PlaceholderTemplate.compile(value);
+            this.token = template.getSingleToken();
+            PlaceholderUtil.checkUnknown(template);
+            this.reader = reader;
             this.exceptionHandler = exceptionHandler;
             this.onError = onError;
         }
 
         @Override
         public T resolve(Player player, PlaceholderRegistry local) {
-            return parse(PlaceholderUtil.resolve(player, value, local));
+            if (token != null) {
+                // No string to build, the placeholder is read directly, null only if it's missing
+                T res;
+                try {
+                    res = PlaceholderUtil.single(player, token, local, reader);
+                } catch (Exception e) {
+                    exceptionHandler.accept(value, e);
+                    return onError;
+                }
+                if (res != null)
+                    return res;
+            }
+            return parse(template.resolve(player, local));
         }
 
         @Override
         public T resolve(Player player) {
-            return parse(PlaceholderUtil.resolve(player, value));
+            return resolve(player, PlaceholderUtil.getRegistry());
+        }
+
+        @Override
+        public Collection<String> getPlaceholderTokens() {
+            return template.getTokens();
         }
 
         protected T parse(String real) {
             try {
-                return parser.apply(real);
+                return reader.parse(real);
             } catch (Exception e) {
                 exceptionHandler.accept(real, e);
             }
@@ -180,19 +230,32 @@ public interface PlaceholderValue<T> {
     class StringPlaceholderValue implements PlaceholderValue<String> {
         @Getter
         private final String value;
+        @Getter
+        private final PlaceholderTemplate template;
 
         public StringPlaceholderValue(String value) {
+            this(value, PlaceholderTemplate.compile(value));
+        }
+
+        public StringPlaceholderValue(String value, PlaceholderTemplate template) {
             this.value = value;
+            this.template = template;
+            PlaceholderUtil.checkUnknown(template);
         }
 
         @Override
         public String resolve(Player player, PlaceholderRegistry local) {
-            return PlaceholderUtil.resolve(player, value, local);
+            return template.resolve(player, local);
         }
 
         @Override
         public String resolve(Player player) {
-            return PlaceholderUtil.resolve(player, value);
+            return template.resolve(player, PlaceholderUtil.getRegistry());
+        }
+
+        @Override
+        public Collection<String> getPlaceholderTokens() {
+            return template.getTokens();
         }
 
         public String toString() {
@@ -0,0 +1,293 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency.AttributeDependency;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency.EventDependency;
+import xyz.upperlevel.uppercore.task.UpdaterTask;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Publishes per-player change notifications of the placeholders.
+ * <br>
+ * Boards and guis subscribe the placeholders they show and get called back (at most once per tick) when
+ * one of them changes. Changes are detected through the placeholders' {@link PlaceholderDependency}s,
+ * placeholders without dependencies cannot be watched and have to be refreshed on a timer.
+ */
+public class PlaceholderWatcher implements Listener {
+    private final Map<UUID, List<Subscription>> subscriptions = new HashMap<>();
+    // Event classes already listened, with the dependencies (and placeholder ids) that use them
+    private final Map<Class<? extends Event>, List<Watch>> events = new HashMap<>();
+    private final Set<Placeholder> watched = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Invalidations may come from any thread, they're processed on the next tick
+    private final Queue<Invalidation> invalidations = new ConcurrentLinkedQueue<>();
+
+    private Plugin plugin;
+    private UpdaterTask task;
+    private long tick;
+
+    public void enable(Plugin plugin) {
+        if (this.plugin != null)
+            disable();
+        this.plugin = plugin;
+        task = new UpdaterTask(1, this::onTick);
+        task.start(false);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    public void disable() {
+        if (plugin == null)
+            return;
+        task.stop();
+        task = null;
+        HandlerList.unregisterAll(this);
+        subscriptions.clear();
+        events.clear();
+        watched.clear();
+        invalidations.clear();
+        plugin = null;
+    }
+
+    public boolean isEnabled() {
+        return plugin != null;
+    }
+
+    /**
+     * Marks the placeholder as changed for every player.
+     *
+     * @param id the placeholder id
+     */
+    public void invalidate(String id) {
+        invalidations.add(new Invalidation(null, id));
+    }
+
+    /**
+     * Marks the placeholder as changed for the player.
+     *
+     * @param player the player whose placeholder changed
+     * @param id     the placeholder id
+     */
+    public void invalidate(Player player, String id) {
+        invalidations.add(new Invalidation(player.getUniqueId(), id));
+    }
+
+    /**
+     * Checks if every placeholder in the tokens declares its dependencies.
+     *
+     * @param tokens the placeholder tokens (without the '%'), null means unknown
+     * @param local  the local placeholders, may be null
+     * @return true only if the tokens can be subscribed
+     */
+    public boolean isWatchable(Collection<String> tokens, PlaceholderRegistry local) {
+        if (tokens == null)
+            return false;
+        for (String token : tokens) {
+            Placeholder placeholder = find(token, local);
+            if (placeholder != null && placeholder.getDependencies() == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calls the callback (on the main thread, at most once per tick) every time one of the placeholders changes
+     * for the player.
+     *
+     * @param player   the player
+     * @param tokens   the placeholder tokens (without the '%')
+     * @param local    the local placeholders, may be null
+     * @param callback the action to run when a placeholder changes
+     * @return the subscription or null if the placeholders cannot be watched (or the watcher is disabled)
+     */
+    public Subscription subscribe(Player player, Collection<String> tokens, PlaceholderRegistry local, Runnable callback) {
+        if (!isEnabled() || !isWatchable(tokens, local))
+            return null;
+        Subscription subscription = new Subscription(player, callback);
+        for (String token : tokens) {
+            Placeholder placeholder = find(token, local);
+            if (placeholder == null)
+                continue; // Never resolved, it won't change
+            subscription.ids.add(placeholder.getId());
+            for (PlaceholderDependency dependency : placeholder.getDependencies()) {
+                if (dependency instanceof AttributeDependency) {
+                    AttributeDependency attribute = (AttributeDependency) dependency;
+                    subscription.attributes.add(new AttributeWatch(attribute, attribute.get(player)));
+                }
+            }
+            watch(placeholder);
+        }
+        subscriptions.computeIfAbsent(player.getUniqueId(), uuid -> new ArrayList<>()).add(subscription);
+        return subscription;
+    }
+
+    private void watch(Placeholder placeholder) {
+        if (!watched.add(placeholder))
+            return;
+        for (PlaceholderDependency dependency : placeholder.getDependencies()) {
+            if (!(dependency instanceof EventDependency))
+                continue;
+            EventDependency<?> event = (EventDependency<?>) dependency;
+            List<Watch> watches = events.get(event.getType());
+            if (watches == null) {
+                watches = new ArrayList<>();
+                events.put(event.getType(), watches);
+                List<Watch> listened = watches;
+                Bukkit.getPluginManager().registerEvent(event.getType(), this, EventPriority.MONITOR, (l, e) -> onEvent(listened, e), plugin, true);
+            }
+            watches.add(new Watch(event, placeholder.getId()));
+        }
+    }
+
+    private void onEvent(List<Watch> watches, Event event) {
+        for (Watch watch : watches) {
+            if (!watch.dependency.getType().isInstance(event))
+                continue;
+            Player player = watch.dependency.getPlayer(event);
+            if (player == null)
+                invalidate(watch.id);
+            else
+                invalidate(player, watch.id);
+        }
+    }
+
+    private void onTick() {
+        tick++;
+        Set<String> changedAll = new HashSet<>();
+        Map<UUID, Set<String>> changed = new HashMap<>();
+        Invalidation invalidation;
+        while ((invalidation = invalidations.poll()) != null) {
+            if (invalidation.player == null)
+                changedAll.add(invalidation.id);
+            else
+                changed.computeIfAbsent(invalidation.player, uuid -> new HashSet<>()).add(invalidation.id);
+        }
+
+        List<Subscription> dirty = new ArrayList<>();
+        for (Map.Entry<UUID, List<Subscription>> entry : subscriptions.entrySet()) {
+            Set<String> playerChanged = changed.getOrDefault(entry.getKey(), Collections.emptySet());
+            for (Subscription subscription : entry.getValue()) {
+                if (subscription.poll(tick) || subscription.isAffected(changedAll) || subscription.isAffected(playerChanged))
+                    dirty.add(subscription);
+            }
+        }
+        for (Subscription subscription : dirty) {
+            if (subscription.active)
+                subscription.callback.run();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        List<Subscription> removed = subscriptions.remove(e.getPlayer().getUniqueId());
+        if (removed != null)
+            removed.forEach(s -> s.active = false);
+    }
+
+    private static Placeholder find(String token, PlaceholderRegistry local) {
+        PlaceholderRegistry registry = local != null ? local : PlaceholderUtil.getRegistry();
+        Placeholder found = registry.get(token);
+        int index = token.lastIndexOf('_');
+        while (found == null && index >= 0) {
+            found = registry.get(token.substring(0, index));
+            index = token.lastIndexOf('_', index - 1);
+        }
+        return found;
+    }
+
+    /**
+     * A callback that gets called when the subscribed placeholders change.
+     */
+    public class Subscription {
+        @Getter
+        private final Player player;
+        private final Runnable callback;
+        private final Set<String> ids = new HashSet<>();
+        private final List<AttributeWatch> attributes = new ArrayList<>();
+        private boolean active = true;
+
+        private Subscription(Player player, Runnable callback) {
+            this.player = player;
+            this.callback = callback;
+        }
+
+        private boolean poll(long tick) {
+            boolean changed = false;
+            for (AttributeWatch watch : attributes) {
+                if (tick % watch.dependency.getInterval() != 0)
+                    continue;
+                Object value = watch.dependency.get(player);
+                if (!Objects.equals(value, watch.last)) {
+                    watch.last = value;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        private boolean isAffected(Set<String> changed) {
+            if (changed.isEmpty())
+                return false;
+            for (String id : ids) {
+                if (changed.contains(id))
+                    return true;
+            }
+            return false;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void cancel() {
+            if (!active)
+                return;
+            active = false;
+            List<Subscription> playerSubscriptions = subscriptions.get(player.getUniqueId());
+            if (playerSubscriptions != null) {
+                playerSubscriptions.remove(this);
+                if (playerSubscriptions.isEmpty())
+                    subscriptions.remove(player.getUniqueId());
+            }
+        }
+    }
+
+    private static class Watch {
+        private final EventDependency<?> dependency;
+        private final String id;
+
+        Watch(EventDependency<?> dependency, String id) {
+            this.dependency = dependency;
+            this.id = id;
+        }
+    }
+
+    private static class AttributeWatch {
+        private final AttributeDependency dependency;
+        private Object last;
+
+        AttributeWatch(AttributeDependency dependency, Object last) {
+            this.dependency = dependency;
+            this.last = last;
+        }
+    }
+
+    private static class Invalidation {
+        private final UUID player;
+        private final String id;
+
+        Invalidation(UUID player, String id) {
+            this.player = player;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+
+/**
+ * A small registry reused across calls to avoid allocating one for every message sent.
+ * <br>
+ * It must be acquired, used only by the current thread and closed when done (no reference to it can be
+ * kept after that):
+ * <pre>
+ * try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of("killer", name)) {
+ *     message.send(player, local);
+ * }
+ * </pre>
+ */
+public final class PooledPlaceholderRegistry implements PlaceholderRegistry<PooledPlaceholderRegistry>, AutoCloseable {
+    public static final int MAX_PLACEHOLDERS = 8;
+    private static final int MAX_POOLED = 4; // Per thread
+
+    private static final ThreadLocal<Deque<PooledPlaceholderRegistry>> pools = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Slot[] slots = new Slot[MAX_PLACEHOLDERS];
+    private int size;
+    private PlaceholderRegistry parent;
+    private boolean open;
+
+    private PooledPlaceholderRegistry() {
+        for (int i = 0; i < MAX_PLACEHOLDERS; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    @Override
+    public PlaceholderRegistry getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(PlaceholderRegistry parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public Placeholder getLocal(String key) {
+        Placeholder res = null;
+        for (int i = 0; i < size; i++) {
+            Slot slot = slots[i];
+            if (slot.id.equals(key))
+                res = slot.get(); // Keep on searching, the last one wins
+        }
+        return res;
+    }
+
+    @Override
+    public Placeholder get(String key) {
+        Placeholder p = getLocal(key);
+        return p != null ? p : parent != null ? parent.get(key) : null;
+    }
+
+    @Override
+    public PooledPlaceholderRegistry set(Placeholder placeholder) {
+        next(placeholder.getId()).handle = placeholder;
+        return this;
+    }
+
+    @Override
+    public PooledPlaceholderRegistry set(String id, Object obj) {
+        next(id).value = String.valueOf(obj);
+        return this;
+    }
+
+    private Slot next(String id) {
+        if (!open)
+            throw new IllegalStateException("The registry has already been closed");
+        if (size == MAX_PLACEHOLDERS)
+            throw new IllegalStateException("Too many placeholders in a pooled registry (max " + MAX_PLACEHOLDERS + ")");
+        Slot slot = slots[size++];
+        slot.id = id;
+        return slot;
+    }
+
+    /**
+     * Clears the registry and gives it back to the pool, it must not be used anymore.
+     */
+    @Override
+    public void close() {
+        if (!open)
+            return;
+        open = false;
+        for (int i = 0; i < size; i++) {
+            slots[i].clear();
+        }
+        size = 0;
+        parent = null;
+        Deque<PooledPlaceholderRegistry> pool = pools.get();
+        if (pool.size() < MAX_POOLED)
+            pool.push(this);
+    }
+
+    /**
+     * Takes an empty registry from the pool of the current thread (or creates it), its parent is the global registry.
+     *
+     * @return the empty registry
+     */
+    public static PooledPlaceholderRegistry acquire() {
+        PooledPlaceholderRegistry res = pools.get().poll();
+        if (res == null)
+            res = new PooledPlaceholderRegistry();
+        res.open = true;
+        res.parent = PlaceholderUtil.getRegistry();
+        return res;
+    }
+
+    public static PooledPlaceholderRegistry of(String k1, String v1) {
+        return acquire().set(k1, v1);
+    }
+
+    public static PooledPlaceholderRegistry of(String k1, String v1, String k2, String v2) {
+        return acquire().set(k1, v1).set(k2, v2);
+    }
+
+    public static PooledPlaceholderRegistry of(String k1, String v1, String k2, String v2, String k3, String v3) {
+        return acquire().set(k1, v1).set(k2, v2).set(k3, v3);
+    }
+
+    public static PooledPlaceholderRegistry of(String k1, String v1, String k2, String v2, String k3, String v3, String k4, String v4) {
+        return acquire().set(k1, v1).set(k2, v2).set(k3, v3).set(k4, v4);
+    }
+
+    // A reusable placeholder: either a constant value or another placeholder
+    private static class Slot implements Placeholder {
+        private String id;
+        private String value;
+        private Placeholder handle;
+
+        Placeholder get() {
+            return handle != null ? handle : this;
+        }
+
+        void clear() {
+            id = null;
+            value = null;
+            handle = null;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String resolve(Player player, String arg) {
+            return value;
+        }
+
+        @Override
+        public Collection<PlaceholderDependency> getDependencies() {
+            return Collections.emptyList();
+        }
+    }
+}
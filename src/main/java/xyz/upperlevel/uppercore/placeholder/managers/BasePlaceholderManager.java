@@ -1,65 +1,227 @@
 package xyz.upperlevel.uppercore.placeholder.managers;
 
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import xyz.upperlevel.uppercore.placeholder.AsyncPlaceholder;
 import xyz.upperlevel.uppercore.placeholder.Placeholder;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderManager;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderProfiler;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderReader;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderScanner;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class BasePlaceholderManager implements PlaceholderManager {
     public static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%([^%]+)%");
+    public static final int MAX_CACHED_TOKENS = 4096;
+
+    // Raw token (without '%') -> the manager's placeholder it resolves to
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
 
     public boolean hasPlaceholders(String string) {
-        return PLACEHOLDER_PATTERN.matcher(string).find();
+        return PlaceholderScanner.hasPlaceholders(string);
+    }
+
+    @Override
+    public boolean isKnown(String token) {
+        return lookup(token).placeholder != null;
     }
 
     @Override
     public String apply(Player player, String text) {
-        return apply(player, text, this::find);
+        return apply(player, text, getRegistry());
     }
 
     @Override
     public String apply(Player player, String text, PlaceholderRegistry local) {
-        return apply(player, text, local::get);
+        return replace(text, token -> exec(player, token, local));
     }
 
     @Override
     public String single(Player player, String string) {
-        return exec(player, string, this::find);
+        return exec(player, string, getRegistry());
     }
 
     @Override
     public String single(Player player, String text, PlaceholderRegistry local) {
-        return exec(player, text, this::find);
+        return exec(player, text, local);
+    }
+
+    @Override
+    public <T> T single(Player player, String text, PlaceholderRegistry local, PlaceholderReader<T> reader) {
+        return exec(player, text, local, reader);
     }
 
 
     public String apply(Player player, String text, Function<String, Placeholder> finder) {
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
-        StringBuffer res = new StringBuffer();
-
-        while(matcher.find()) {
-            String str = matcher.group(1);
-            String replacement = exec(player, str, finder);
-            if(replacement != null)
-                matcher.appendReplacement(res, Matcher.quoteReplacement(replacement));
-        }
-        matcher.appendTail(res);
+        return replace(text, token -> exec(player, token, finder));
+    }
 
-        return res.toString();
+    // Replaces every placeholder found by the scanner, the ones that cannot be resolved are left untouched
+    private static String replace(String text, Function<String, String> resolver) {
+        int start = PlaceholderScanner.find(text, 0);
+        if (start < 0) {
+            return text;
+        }
+        StringBuilder res = new StringBuilder(text.length() + 16);
+        int last = 0;
+        do {
+            int end = text.indexOf('%', start + 1);
+            String replacement = resolver.apply(text.substring(start + 1, end));
+            if (replacement != null) {
+                res.append(text, last, start).append(replacement);
+                last = end + 1;
+            }
+            start = PlaceholderScanner.find(text, end + 1);
+        } while (start >= 0);
+        return res.append(text, last, text.length()).toString();
     }
 
     protected abstract Placeholder find(String id);
 
+    /**
+     * Called every time a placeholder is registered, drops every cached token and enables the
+     * {@link AsyncPlaceholder}s.
+     *
+     * @param plugin      the plugin that registered the placeholder
+     * @param placeholder the registered placeholder
+     */
+    protected void onRegister(Plugin plugin, Placeholder placeholder) {
+        if (placeholder instanceof AsyncPlaceholder && plugin != null) {
+            ((AsyncPlaceholder) placeholder).enable(plugin);
+        }
+        invalidate();
+    }
+
+    /**
+     * Drops every cached token, the next lookups will search the placeholders again.
+     */
+    public void invalidate() {
+        tokens.clear();
+    }
+
+    /**
+     * Checks if the cached tokens can still be used, it's called before every lookup.
+     * <br>
+     * Managers that cannot be notified of every placeholder change should override this.
+     *
+     * @return false if the cache needs to be dropped
+     */
+    protected boolean isCacheValid() {
+        return true;
+    }
+
+    protected Token lookup(String text) {
+        if (!isCacheValid()) {
+            invalidate();
+        }
+        Token token = tokens.get(text);
+        if (token == null) {
+            token = new Token(text);
+            if (tokens.size() >= MAX_CACHED_TOKENS) {
+                tokens.clear();
+            }
+            tokens.put(text, token);
+        }
+        return token;
+    }
+
+    /**
+     * Resolves a placeholder token (without the '%') using the cached lookups.
+     * <br>
+     * The local registry chain is searched first, stopping before the manager's registry (whose
+     * lookup is cached), the resolution order is the same of {@link #exec(Player, String, Function)}.
+     *
+     * @param player the player that executes the placeholder
+     * @param text   the token to resolve
+     * @param local  the registry that contains the local placeholders
+     * @return the resolved placeholder or null if it cannot be found
+     */
+    public String exec(Player player, String text, PlaceholderRegistry local) {
+        return exec(player, text, local, PlaceholderReader.STRING, true);
+    }
+
+    /**
+     * Resolves a placeholder token (without the '%') like {@link #exec(Player, String, PlaceholderRegistry)},
+     * reading the value of the placeholder with the reader.
+     * <br>
+     * Unlike the string resolution, the errors of the placeholders found splitting the token are thrown too,
+     * so a failure can be told apart from a missing placeholder.
+     *
+     * @param player the player that executes the placeholder
+     * @param text   the token to resolve
+     * @param local  the registry that contains the local placeholders
+     * @param reader the reader of the placeholder value
+     * @return the value of the placeholder or null if it cannot be found
+     */
+    public <T> T exec(Player player, String text, PlaceholderRegistry local, PlaceholderReader<T> reader) {
+        return exec(player, text, local, reader, false);
+    }
+
+    // If quiet the placeholders found splitting the token return null on error, as if they were missing
+    private <T> T exec(Player player, String text, PlaceholderRegistry local, PlaceholderReader<T> reader, boolean quiet) {
+        Token token = lookup(text);
+        PlaceholderRegistry global = getRegistry();
+        if (local != null && local != global) {
+            boolean reachesGlobal = false;
+            for (PlaceholderRegistry r = local; r != null; r = r.getParent()) {
+                if (r == global) {
+                    reachesGlobal = true;
+                    break;
+                }
+            }
+            // A local placeholder wins only if it's found before (or together with) the global one
+            int last = reachesGlobal && token.index >= 0 ? token.index : token.ids.length - 1;
+            for (int i = 0; i <= last; i++) {
+                for (PlaceholderRegistry r = local; r != null && r != global; r = r.getParent()) {
+                    Placeholder found = r.getLocal(token.ids[i]);
+                    if (found != null) {
+                        return invoke(player, token.ids[i], found, token.args[i], quiet && i > 0, reader);
+                    }
+                }
+            }
+            if (!reachesGlobal) {
+                return null;
+            }
+        }
+        return token.placeholder != null ? invoke(player, token.ids[token.index], token.placeholder, token.args[token.index], quiet && token.index > 0, reader) : null;
+    }
+
+    // Quiet placeholders return null on error, the others throw it
+    private static <T> T invoke(Player player, String id, Placeholder placeholder, String arg, boolean quiet, PlaceholderReader<T> reader) {
+        PlaceholderProfiler profiler = PlaceholderUtil.getProfiler();
+        if (!profiler.isEnabled()) {
+            if (!quiet)
+                return reader.read(placeholder, player, arg);
+            try {
+                return reader.read(placeholder, player, arg);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            T res = reader.read(placeholder, player, arg);
+            profiler.record(id, System.nanoTime() - start, false);
+            return res;
+        } catch (RuntimeException e) {
+            profiler.record(id, System.nanoTime() - start, true);
+            if (!quiet)
+                throw e;
+            return null;
+        }
+    }
 
     public static String exec(Player player, String text, Function<String, Placeholder> finder) {
         Placeholder found = finder.apply(text);
 
         if(found != null)
-            return found.resolve(player, "");
+            return invoke(player, text, found, "", false, PlaceholderReader.STRING);
 
         int index = text.lastIndexOf('_');
 
@@ -67,15 +229,58 @@ public abstract class BasePlaceholderManager implements PlaceholderManager {
             String id = text.substring(0, index);
             String arg = text.substring(index + 1);
             found = finder.apply(id);
-            if(found != null) {
-                try {
-                    return found.resolve(player, arg);
-                } catch (Exception e) {
-                    return null;
-                }
-            }
+            if(found != null)
+                return invoke(player, id, found, arg, true, PlaceholderReader.STRING);
             index = text.lastIndexOf('_', index - 1);
         }
         return null;
     }
+
+    /**
+     * A raw token split in every (id, argument) pair it may represent, together with the
+     * placeholder of the manager it resolves to.
+     */
+    protected class Token {
+        // Candidates in lookup order: the whole token first, then the '_' splits from the last one
+        private final String[] ids;
+        private final String[] args;
+        private final int index; // The candidate found by the manager, -1 if none
+        private final Placeholder placeholder;
+
+        protected Token(String text) {
+            int count = 1;
+            for (int i = text.indexOf('_'); i >= 0; i = text.indexOf('_', i + 1))
+                count++;
+            ids = new String[count];
+            args = new String[count];
+            ids[0] = text;
+            args[0] = "";
+            int pos = 1;
+            for (int i = text.lastIndexOf('_'); i >= 0; i = text.lastIndexOf('_', i - 1)) {
+                ids[pos] = text.substring(0, i);
+                args[pos] = text.substring(i + 1);
+                pos++;
+            }
+
+            int found = -1;
+            Placeholder p = null;
+            for (int i = 0; i < count; i++) {
+                p = find(ids[i]);
+                if (p != null) {
+                    found = i;
+                    break;
+                }
+            }
+            this.index = found;
+            this.placeholder = p;
+        }
+
+        public Placeholder getPlaceholder() {
+            return placeholder;
+        }
+
+        public String getArgument() {
+            return index >= 0 ? args[index] : null;
+        }
+    }
 }
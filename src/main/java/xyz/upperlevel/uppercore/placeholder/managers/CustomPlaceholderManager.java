@@ -25,6 +25,7 @@ public class CustomPlaceholderManager extends BasePlaceholderManager {
     @Override
     public void register(Plugin plugin, Placeholder placeholder) {
         placeholders.put(placeholder.getId(), placeholder);
+        onRegister(plugin, placeholder);
     }
 
     @Override
@@ -10,11 +10,18 @@ import org.bukkit.plugin.Plugin;
 import xyz.upperlevel.uppercore.placeholder.Placeholder;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
 
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class OfficialPlaceholderManager extends BasePlaceholderManager {
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
 
     private final Map<String, PlaceholderHook> placeholders;
+    // PlaceholderAPI doesn't notify us when other plugins (un)register their hooks, the ones seen by the cache
+    private volatile Map<String, PlaceholderHook> known;
+    private volatile long nextCheck; // The hooks are compared at most once a tick
     @Getter
     private final OfficialPlaceholderRegistry registry = new OfficialPlaceholderRegistry();
 
@@ -25,21 +32,42 @@ public class OfficialPlaceholderManager extends BasePlaceholderManager {
     @Override
     public void register(Plugin plugin, Placeholder placeholder) {
         new OfficialPlaceholderAdapter(plugin, placeholder).hook();
+        onRegister(plugin, placeholder);
     }
 
-    public Placeholder find(String id) {
-        PlaceholderHook hook = placeholders.get(id);
-        return hook == null ? null : new Placeholder() {
-            @Override
-            public String getId() {
-                return id;
+    @Override
+    protected boolean isCacheValid() {
+        long now = System.nanoTime();
+        if (known != null && now - nextCheck < 0) {
+            return true;
+        }
+        nextCheck = now + CHECK_INTERVAL_NANOS;
+        try {
+            // Replaced hooks are different values, so they drop the cache too
+            if (placeholders.equals(known)) {
+                return true;
             }
+            known = new HashMap<>(placeholders);
+        } catch (ConcurrentModificationException e) {
+            known = null; // Changing, checked again by the next lookup
+        }
+        return false;
+    }
 
-            @Override
-            public String resolve(Player player, String arg) {
-                return hook.onPlaceholderRequest(player, arg);
-            }
-        };
+    // The cache is dropped when a hook is replaced, so the hook found can be kept
+    public Placeholder find(String id) {
+        return unwrap(id, placeholders.get(id));
+    }
+
+    // Our placeholders are returned as registered, so they keep their type and dependencies
+    private static Placeholder unwrap(String id, PlaceholderHook hook) {
+        if (hook == null) {
+            return null;
+        }
+        if (hook instanceof OfficialPlaceholderAdapter) {
+            return ((OfficialPlaceholderAdapter) hook).placeholder;
+        }
+        return new PlaceholderHookWrapper(id, hook);
     }
 
 
@@ -79,13 +107,11 @@ public class OfficialPlaceholderManager extends BasePlaceholderManager {
         }
 
         public Placeholder getLocal(String key) {
-            PlaceholderHook hook = placeholders.get(key);
-            return hook == null ? null : new PlaceholderHookWrapper(key, hook);
+            return unwrap(key, placeholders.get(key));
         }
 
         public Placeholder get(String key) {
-            PlaceholderHook hook = placeholders.get(key);
-            return hook == null ? null : new PlaceholderHookWrapper(key, hook);
+            return unwrap(key, placeholders.get(key));
         }
 
         public OfficialPlaceholderRegistry set(Placeholder placeholder) {
@@ -1,17 +1,32 @@
 package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
-import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.IntPlaceholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
 
-public class PlayerFoodPlaceholder implements Placeholder {
+import java.util.Collection;
+import java.util.Collections;
+
+public class PlayerFoodPlaceholder implements IntPlaceholder {
 
     @Override
     public String getId() {
         return "player_food_level";
     }
 
+    @Override
+    public int resolveInt(Player player, String id) {
+        return player.getFoodLevel();
+    }
+
     @Override
     public String resolve(Player player, String id) {
+        // The text stays as it always was (ex. "20.0"), only the typed readers get the int
         return Float.toString(player.getFoodLevel());
     }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.singletonList(PlaceholderDependency.attribute(Player::getFoodLevel));
+    }
 }
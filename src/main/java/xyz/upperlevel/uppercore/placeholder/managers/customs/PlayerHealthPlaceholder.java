@@ -1,9 +1,13 @@
 package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
-import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.DoublePlaceholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
 
-public class PlayerHealthPlaceholder implements Placeholder {
+import java.util.Collection;
+import java.util.Collections;
+
+public class PlayerHealthPlaceholder implements DoublePlaceholder {
 
     @Override
     public String getId() {
@@ -11,7 +15,12 @@ public class PlayerHealthPlaceholder implements Placeholder {
     }
 
     @Override
-    public String resolve(Player player, String id) {
-        return Double.toString(player.getHealth());
+    public double resolveDouble(Player player, String id) {
+        return player.getHealth();
+    }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.singletonList(PlaceholderDependency.attribute(Player::getHealth));
     }
 }
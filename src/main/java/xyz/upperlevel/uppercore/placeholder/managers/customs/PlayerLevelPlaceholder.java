@@ -1,9 +1,14 @@
 package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
-import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
+import xyz.upperlevel.uppercore.placeholder.IntPlaceholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
 
-public class PlayerLevelPlaceholder implements Placeholder {
+import java.util.Collection;
+import java.util.Collections;
+
+public class PlayerLevelPlaceholder implements IntPlaceholder {
 
     @Override
     public String getId() {
@@ -11,7 +16,12 @@ public class PlayerLevelPlaceholder implements Placeholder {
     }
 
     @Override
-    public String resolve(Player player, String id) {
-        return Integer.toString(player.getLevel());
+    public int resolveInt(Player player, String id) {
+        return player.getLevel();
+    }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.singletonList(PlaceholderDependency.event(PlayerLevelChangeEvent.class));
     }
 }
@@ -2,6 +2,10 @@ package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
 import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
+
+import java.util.Collection;
+import java.util.Collections;
 
 public class PlayerNamePlaceholder implements Placeholder {
 
@@ -14,4 +18,9 @@ public class PlayerNamePlaceholder implements Placeholder {
     public String resolve(Player player, String id) {
         return player.getName();
     }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.emptyList();
+    }
 }
@@ -1,17 +1,31 @@
 package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
-import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.DoublePlaceholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
 
-public class PlayerSaturationPlaceholder implements Placeholder {
+import java.util.Collection;
+import java.util.Collections;
+
+public class PlayerSaturationPlaceholder implements DoublePlaceholder {
 
     @Override
     public String getId() {
         return "player_saturation";
     }
 
+    @Override
+    public double resolveDouble(Player player, String id) {
+        return player.getSaturation();
+    }
+
     @Override
     public String resolve(Player player, String id) {
         return Float.toString(player.getSaturation());
     }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.singletonList(PlaceholderDependency.attribute(Player::getSaturation));
+    }
 }
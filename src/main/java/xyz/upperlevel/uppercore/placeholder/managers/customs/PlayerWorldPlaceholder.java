@@ -1,7 +1,12 @@
 package xyz.upperlevel.uppercore.placeholder.managers.customs;
 
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderDependency;
+
+import java.util.Collection;
+import java.util.Collections;
 
 public class PlayerWorldPlaceholder implements Placeholder {
 
@@ -14,4 +19,9 @@ public class PlayerWorldPlaceholder implements Placeholder {
     public String resolve(Player player, String id) {
         return player.getWorld().getName();
     }
+
+    @Override
+    public Collection<PlaceholderDependency> getDependencies() {
+        return Collections.singletonList(PlaceholderDependency.event(PlayerChangedWorldEvent.class));
+    }
 }
@@ -6,6 +6,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderRegistry;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderUtil;
+import xyz.upperlevel.uppercore.placeholder.PooledPlaceholderRegistry;
 import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
 import xyz.upperlevel.uppercore.util.TextUtil;
 
@@ -20,32 +22,29 @@ public class Message {
     private List<PlaceholderValue<String>> lines;
 
     public List<String> get(Player player) {
-        return lines.stream().map(p -> p.resolve(player)).collect(Collectors.toList());
+        return PlaceholderUtil.resolveAll(player, null, lines);
     }
 
     public List<String> get(Player player, PlaceholderRegistry placeholders) {
-        return lines.stream().map(p -> p.resolve(player, placeholders)).collect(Collectors.toList());
+        return PlaceholderUtil.resolveAll(player, placeholders, lines);
     }
 
     public List<String> get(Player player, String k1, String v2) {
-        return get(player, PlaceholderRegistry.wrap(
-                k1, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v2)) {
+            return get(player, local);
+        }
     }
 
     public List<String> get(Player player, String k1, String v1, String k2, String v2) {
-        return get(player, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            return get(player, local);
+        }
     }
 
     public List<String> get(Player player, String k1, String v1, String k2, String v2, String k3, String v3) {
-        return get(player, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            return get(player, local);
+        }
     }
 
     //--------------FILTER
@@ -59,124 +58,112 @@ public class Message {
     }
 
     public Message filter(String k1, String v1) {
-        return filter(PlaceholderRegistry.wrap(
-                k1, v1
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1)) {
+            return filter(local);
+        }
     }
 
     public Message filter(String k1, String v1, String k2, String v2) {
-        return filter(PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            return filter(local);
+        }
     }
 
     public Message filter(String k1, String v1, String k2, String v2, String k3, String v3) {
-        return filter(PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            return filter(local);
+        }
     }
 
 
     //--------------SEND
 
     public void send(Player player) {
-        for(PlaceholderValue<String> message : lines)
-            player.sendMessage(TextUtil.translateCustom(message.resolve(player)));
+        for(String message : get(player))
+            player.sendMessage(TextUtil.translateCustom(message));
     }
 
     public void send(Player player, PlaceholderRegistry placeholders) {
-        for(PlaceholderValue<String> message : lines)
-            player.sendMessage(TextUtil.translateCustom(message.resolve(player, placeholders)));
+        for(String message : get(player, placeholders))
+            player.sendMessage(TextUtil.translateCustom(message));
     }
 
     public void send(Player player, String k1, String v1) {
-        send(player, PlaceholderRegistry.wrap(
-                k1, v1
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1)) {
+            send(player, local);
+        }
     }
 
     public void send(Player player, String k1, String v1, String k2, String v2) {
-        send(player, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            send(player, local);
+        }
     }
 
     public void send(Player player, String k1, String v1, String k2, String v2, String k3, String v3) {
-        send(player, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            send(player, local);
+        }
     }
 
 
     public void send(CommandSender sender) {
-        for(PlaceholderValue<String> message : lines)
-            sender.sendMessage(TextUtil.translateCustom(message.resolve(null)));
+        for(String message : get(null))
+            sender.sendMessage(TextUtil.translateCustom(message));
     }
 
     public void send(CommandSender sender, PlaceholderRegistry placeholders) {
-        for(PlaceholderValue<String> message : lines)
-            sender.sendMessage(TextUtil.translateCustom(message.resolve(null, placeholders)));
+        for(String message : get(null, placeholders))
+            sender.sendMessage(TextUtil.translateCustom(message));
     }
 
     public void send(CommandSender sender, String k1, String v1) {
-        send(sender, PlaceholderRegistry.wrap(
-                k1, v1
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1)) {
+            send(sender, local);
+        }
     }
 
     public void send(CommandSender sender, String k1, String v1, String k2, String v2) {
-        send(sender, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            send(sender, local);
+        }
     }
 
     public void send(CommandSender sender, String k1, String v1, String k2, String v2, String k3, String v3) {
-        send(sender, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            send(sender, local);
+        }
     }
 
     //--------------BROADCAST
     public void broadcast(Iterable<? extends Player> players) {
         for(Player player : players)
-            for(PlaceholderValue<String> message : lines)
-                player.sendMessage(message.resolve(player));
+            for(String message : get(player))
+                player.sendMessage(message);
     }
 
     public void broadcast(Iterable<? extends Player> players, PlaceholderRegistry placeholders) {
         for(Player player : players)
-            for(PlaceholderValue<String> message : lines)
-                player.sendMessage(message.resolve(player, placeholders));
+            for(String message : get(player, placeholders))
+                player.sendMessage(message);
     }
 
     public void broadcast(Iterable<? extends Player> players, String k1, String v1) {
-        broadcast(players, PlaceholderRegistry.wrap(
-                k1, v1
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1)) {
+            broadcast(players, local);
+        }
     }
 
     public void broadcast(Iterable<? extends Player> players, String k1, String v1, String k2, String v2) {
-        broadcast(players, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            broadcast(players, local);
+        }
     }
 
     public void broadcast(Iterable<? extends Player> players, String k1, String v1, String k2, String v2, String k3, String v3) {
-        broadcast(players, PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            broadcast(players, local);
+        }
     }
 
 
@@ -189,24 +176,21 @@ public class Message {
     }
 
     public void broadcast(String k1, String v1) {
-        broadcast(Bukkit.getOnlinePlayers(), PlaceholderRegistry.wrap(
-                k1, v1
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1)) {
+            broadcast(Bukkit.getOnlinePlayers(), local);
+        }
     }
 
     public void broadcast(String k1, String v1, String k2, String v2) {
-        broadcast(Bukkit.getOnlinePlayers(), PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2)) {
+            broadcast(Bukkit.getOnlinePlayers(), local);
+        }
     }
 
     public void broadcast(String k1, String v1, String k2, String v2, String k3, String v3) {
-        broadcast(Bukkit.getOnlinePlayers(), PlaceholderRegistry.wrap(
-                k1, v1,
-                k2, v2,
-                k3, v3
-        ));
+        try (PooledPlaceholderRegistry local = PooledPlaceholderRegistry.of(k1, v1, k2, v2, k3, v3)) {
+            broadcast(Bukkit.getOnlinePlayers(), local);
+        }
     }
 
     public static Message fromConfig(Object obj) {
@@ -0,0 +1,146 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.bukkit.entity.Player;
+import org.junit.Test;
+import xyz.upperlevel.uppercore.config.exceptions.InvalidConfigException;
+import xyz.upperlevel.uppercore.placeholder.MapPlaceholderManager;
+import xyz.upperlevel.uppercore.placeholder.Placeholder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bukkit.ChatColor.GOLD;
+import static org.bukkit.ChatColor.RESET;
+import static org.bukkit.ChatColor.YELLOW;
+import static org.junit.Assert.*;
+
+public class AnimationTest {
+    @Test
+    public void testFrameIndex() {
+        Animation animation = Animation.frames(Arrays.asList("a", "b", "c"), 2);
+        assertTrue(animation.isAnimated());
+        assertEquals(0, animation.frame(0));
+        assertEquals(0, animation.frame(1));
+        assertEquals(1, animation.frame(2));
+        assertEquals(2, animation.frame(5));
+        assertEquals(0, animation.frame(6));
+        assertEquals("b", animation.render(null, null, 1));
+    }
+
+    @Test
+    public void testFixed() {
+        Animation animation = Animation.deserialize("&eHello");
+        assertFalse(animation.isAnimated());
+        assertEquals(0, animation.frame(1234));
+        assertEquals(YELLOW + "Hello", animation.render(null, null, 0));
+    }
+
+    @Test
+    public void testOnlyPlaceholderFramesAreResolved() {
+        MapPlaceholderManager manager = new MapPlaceholderManager().install();
+        AtomicInteger calls = new AtomicInteger();
+        manager.register(null, Placeholder.of("kills", (Player player) -> String.valueOf(calls.incrementAndGet())));
+        Animation animation = Animation.frames(Arrays.asList("Kills: %kills%", "Static"), 1);
+        assertEquals(Collections.singleton("kills"), animation.getPlaceholderTokens());
+        assertEquals("Static", animation.render(null, manager.getRegistry(), 1));
+        assertEquals(0, calls.get());
+        assertEquals("Kills: 1", animation.render(null, manager.getRegistry(), 0));
+        assertEquals("Kills: 2", animation.render(null, manager.getRegistry(), 0));
+    }
+
+    @Test
+    public void testSweep() {
+        Animation animation = Animation.sweep("ABC", "&6", "&e", 1);
+        assertEquals(4, animation.size());
+        assertEquals(GOLD + "ABC", animation.render(null, null, 0));
+        assertEquals(GOLD + "" + YELLOW + "A" + GOLD + "BC", animation.render(null, null, 1));
+        assertEquals(GOLD + "AB" + YELLOW + "C" + GOLD, animation.render(null, null, 3));
+    }
+
+    @Test
+    public void testScroll() {
+        Animation animation = Animation.scroll("abcdef", 4, 1);
+        assertEquals(9, animation.size()); // 6 letters and the gap
+        assertEquals(RESET + "abcd", animation.render(null, null, 0));
+        assertEquals("ef" + RESET + "  ", animation.render(null, null, 4));
+        assertEquals(RESET + "   " + RESET + "a", animation.render(null, null, 6));
+    }
+
+    @Test
+    public void testShortScrollIsFixed() {
+        Animation animation = Animation.scroll("abc", 4, 1);
+        assertFalse(animation.isAnimated());
+        assertEquals("abc", animation.render(null, null, 0));
+    }
+
+    @Test
+    public void testDeserialize() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("frames", Arrays.asList("&aA", "&bB"));
+        config.put("interval", 5);
+        Animation animation = Animation.deserialize(config);
+        assertEquals(2, animation.size());
+        assertEquals(5, animation.getInterval());
+    }
+
+    @Test(expected = InvalidConfigException.class)
+    public void testDeserializeUnknown() {
+        Animation.deserialize(Collections.singletonMap("blink", "text"));
+    }
+
+    @Test
+    public void testViewAnimatedWithoutUpdate() {
+        AnimatedConfigBoard board = new AnimatedConfigBoard(
+                Animation.frames(Arrays.asList("Title", "TITLE"), 1),
+                Arrays.asList(Animation.frames(Arrays.asList("a", "b"), 1), Animation.deserialize("fixed")),
+                -1
+        );
+        List<String> titles = new ArrayList<>();
+        Map<Integer, String> prefixes = new HashMap<>();
+        BoardBackend backend = new BoardBackend() {
+            @Override
+            public void show() {
+            }
+
+            @Override
+            public void setTitle(String title) {
+                titles.add(title);
+            }
+
+            @Override
+            public void addEntry(int line, String entry, int score) {
+            }
+
+            @Override
+            public void setScore(String entry, int score) {
+            }
+
+            @Override
+            public void removeEntry(int line, String entry) {
+            }
+
+            @Override
+            public void setAffixes(int line, String prefix, String suffix) {
+                prefixes.put(line, prefix);
+            }
+
+            @Override
+            public void destroy() {
+            }
+        };
+        // Built as a board manager user would, without the update of create
+        AnimatedConfigBoard.View view = new AnimatedConfigBoard.View(null, board, null, backend);
+        view.animate();
+        assertEquals(Collections.singletonList("TITLE"), titles);
+        assertEquals("b", prefixes.get(0));
+        assertEquals("fixed", prefixes.get(1));
+        view.animate();
+        assertEquals(Arrays.asList("TITLE", "Title"), titles);
+        assertEquals("a", prefixes.get(0));
+    }
+}
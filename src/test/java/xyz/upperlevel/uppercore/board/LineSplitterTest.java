@@ -0,0 +1,92 @@
+package xyz.upperlevel.uppercore.board;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.bukkit.ChatColor.BOLD;
+import static org.bukkit.ChatColor.RED;
+import static org.bukkit.ChatColor.WHITE;
+import static org.bukkit.ChatColor.YELLOW;
+import static org.junit.Assert.*;
+
+public class LineSplitterTest {
+    private final LineSplitter splitter = new LineSplitter();
+
+    private static String repeat(char c, int count) {
+        StringBuilder res = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            res.append(c);
+        }
+        return res.toString();
+    }
+
+    @Test
+    public void testShortLine() {
+        splitter.split("Kills: 10", 3);
+        assertEquals("Kills: 10", splitter.prefix());
+        assertEquals(LineSplitter.key(3), splitter.entry());
+        assertEquals("", splitter.suffix());
+    }
+
+    @Test
+    public void testColorsCarriedToEntry() {
+        String line = YELLOW + "Line 1: " + WHITE + "long value";
+        splitter.split(line, 0);
+        assertEquals(YELLOW + "Line 1: " + WHITE + "long", splitter.prefix());
+        assertEquals(LineSplitter.key(0) + WHITE + " value", splitter.entry());
+    }
+
+    @Test
+    public void testFormatsCarriedToEntry() {
+        String line = RED + "" + BOLD + "Bold red text that goes on";
+        splitter.split(line, 0);
+        assertEquals(RED + "" + BOLD + "Bold red tex", splitter.prefix());
+        assertEquals(LineSplitter.key(0) + RED + BOLD + "t that goes on", splitter.entry());
+    }
+
+    @Test
+    public void testColorCodeNotSplit() {
+        // The colour code would start at the last char of the prefix
+        String line = repeat('a', 15) + RED + "red";
+        splitter.split(line, 0);
+        assertEquals(repeat('a', 15), splitter.prefix());
+        assertEquals(LineSplitter.key(0) + RED + "red", splitter.entry());
+    }
+
+    @Test
+    public void testLimits() {
+        String line = repeat('a', 16) + repeat('b', 50) + repeat('c', 30);
+        splitter.split(line, 14);
+        String entry = splitter.entry();
+        assertEquals(repeat('a', 16), splitter.prefix());
+        assertEquals(BoardView.MAX_ENTRY_CHARS, entry.length());
+        assertEquals(LineSplitter.key(14) + repeat('b', 40 - LineSplitter.key(14).length()), entry);
+        assertEquals(BoardView.MAX_SUFFIX_CHARS, splitter.suffix().length());
+        assertTrue(splitter.suffix().startsWith("b"));
+    }
+
+    @Test
+    public void testUniqueKeys() {
+        Set<String> entries = new HashSet<>();
+        for (int i = 0; i < BoardView.MAX_LINES; i++) {
+            splitter.split("", i);
+            entries.add(splitter.entry());
+        }
+        assertEquals(BoardView.MAX_LINES, entries.size());
+    }
+
+    @Test
+    public void testEquals() {
+        splitter.split(YELLOW + "Line 1: " + WHITE + "long value and suffix here!", 2);
+        String prefix = splitter.prefix(), entry = splitter.entry(), suffix = splitter.suffix();
+        assertTrue(splitter.prefixEquals(prefix));
+        assertTrue(splitter.entryEquals(entry));
+        assertTrue(splitter.suffixEquals(suffix));
+        assertFalse(splitter.prefixEquals(null));
+        splitter.split(YELLOW + "Line 1: " + WHITE + "long value", 2);
+        assertTrue(splitter.prefixEquals(prefix));
+        assertFalse(splitter.entryEquals(entry));
+    }
+}
@@ -0,0 +1,195 @@
+package xyz.upperlevel.uppercore.database;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CachedDatabaseTest {
+    private CachedDatabase cache;
+
+    @After
+    public void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    // The periodic flush is far enough not to run during the tests
+    private CachedDatabase.TableImpl table(Table backend, int maxSize) {
+        cache = new CachedDatabase(id -> backend, CacheSettings.create().maxSize(maxSize).flushInterval(3600));
+        return cache.table("test");
+    }
+
+    private static Map<String, Object> data(String key, Object value) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(key, value);
+        return data;
+    }
+
+    @Test
+    public void testWritesAreCoalesced() {
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase.TableImpl table = table(backend, 10);
+        Document document = table.document("a");
+        for (int i = 0; i < 100; i++) {
+            document.send(data("kills", i));
+        }
+        document.increment("kills", 1);
+        assertTrue(backend.batches.isEmpty());
+        assertEquals(100L, document.ask().get("kills"));
+        table.flush();
+        assertEquals(1, backend.batches.size());
+        assertEquals(Collections.singleton("a"), backend.batches.get(0).keySet());
+        assertEquals(100L, backend.documents.get("a").get("kills"));
+        table.flush();
+        assertEquals(1, backend.batches.size()); // Nothing changed
+    }
+
+    @Test
+    public void testReadsAreCached() {
+        MemoryTable backend = new MemoryTable();
+        backend.documents.put("a", data("name", "alex"));
+        CachedDatabase.TableImpl table = table(backend, 10);
+        assertEquals("alex", table.document("a").ask().get("name"));
+        assertNull(table.document("b").ask());
+        table.document("a").ask();
+        table.document("b").ask();
+        assertEquals(2, backend.reads);
+    }
+
+    @Test
+    public void testReturnedMapsAreCopies() {
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase.TableImpl table = table(backend, 10);
+        Map<String, Object> data = data("kills", 1);
+        table.document("a").send(data);
+        data.put("kills", 2);
+        table.document("a").ask().put("kills", 3);
+        assertEquals(1, table.document("a").ask().get("kills"));
+    }
+
+    @Test
+    public void testEvictedDocumentsAreWritten() {
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase.TableImpl table = table(backend, 2);
+        table.document("a").send(data("kills", 1));
+        table.document("b").send(data("kills", 2));
+        table.document("c").send(data("kills", 3));
+        // The eldest is still readable while its write is scheduled
+        assertEquals(1, table.document("a").ask().get("kills"));
+        table.flush();
+        assertEquals(1, backend.documents.get("a").get("kills"));
+        assertEquals(2, backend.documents.get("b").get("kills"));
+        assertEquals(3, backend.documents.get("c").get("kills"));
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase.TableImpl table = table(backend, 1);
+        table.document("a").send(data("kills", 1));
+        backend.failure = new RuntimeException("Connection lost");
+        try {
+            table.flush();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Connection lost", e.getCause().getMessage());
+        }
+        assertTrue(backend.documents.isEmpty());
+        assertEquals(1, table.document("a").ask().get("kills"));
+        table.flush();
+        assertEquals(1, backend.documents.get("a").get("kills"));
+    }
+
+    @Test
+    public void testFailedFlushKeepsLaterChanges() {
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase.TableImpl table = table(backend, 10);
+        table.document("a").send(data("kills", 1));
+        backend.failure = new RuntimeException();
+        try {
+            table.flush();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        table.document("a").send(data("kills", 2));
+        table.flush();
+        assertEquals(2, backend.documents.get("a").get("kills"));
+    }
+
+    @Test
+    public void testDocumentsBeingWrittenAreReadable() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        MemoryTable backend = new MemoryTable() {
+            @Override
+            public void sendAll(Map<String, Map<String, Object>> documents) {
+                writing.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.sendAll(documents);
+            }
+        };
+        backend.documents.put("a", data("kills", 0));
+        backend.documents.put("b", data("kills", 0));
+        CachedDatabase.TableImpl table = table(backend, 1);
+        table.document("a").send(data("kills", 1));
+        backend.failure = new RuntimeException();
+        Thread flush = new Thread(() -> {
+            try {
+                table.flush();
+            } catch (IllegalStateException ignored) {
+            }
+        });
+        flush.start();
+        try {
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            // Loading b removes a from the cache while its write is running
+            assertEquals(0, table.document("b").ask().get("kills"));
+            assertEquals(1, table.document("a").ask().get("kills"));
+        } finally {
+            resume.countDown();
+            flush.join();
+        }
+        // The write failed, a is still to write
+        assertEquals(0, backend.documents.get("a").get("kills"));
+        table.flush();
+        assertEquals(1, backend.documents.get("a").get("kills"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFlushInterval() {
+        CacheSettings.create().flushInterval(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        CacheSettings.create().maxSize(0);
+    }
+
+    @Test
+    public void testStorageManagerClosesTheOpenCaches() {
+        StorageManager storages = new StorageManager();
+        MemoryTable backend = new MemoryTable();
+        CachedDatabase forgotten = storages.cache(id -> backend, CacheSettings.create().flushInterval(3600));
+        forgotten.table("test").document("a").send(data("kills", 3));
+        CachedDatabase closed = storages.cache(id -> new MemoryTable(), CacheSettings.create().flushInterval(3600));
+        closed.close();
+
+        storages.closeCaches();
+        assertEquals(3, backend.documents.get("a").get("kills"));
+        assertEquals(1, backend.batches.size());
+        storages.closeCaches();
+        assertEquals(1, backend.batches.size()); // Already closed
+    }
+}
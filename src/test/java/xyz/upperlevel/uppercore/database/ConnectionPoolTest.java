@@ -0,0 +1,112 @@
+package xyz.upperlevel.uppercore.database;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+    @Before
+    public void setUp() {
+        StubDriver.reset();
+    }
+
+    private ConnectionPool pool(PoolSettings settings) {
+        return new ConnectionPool(StubDriver.URL, "user", "password", settings);
+    }
+
+    @Test
+    public void testStatementsAreCached() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1));
+        PreparedStatement first = pool.execute(connection -> connection.prepare("SELECT 1"));
+        PreparedStatement second = pool.execute(connection -> connection.prepare("SELECT 1"));
+        assertSame(first, second);
+        assertEquals(1, StubDriver.connections.size());
+        assertFalse(StubDriver.connections.get(0).statements.get(0).closed);
+    }
+
+    @Test
+    public void testStatementCacheEvictsEldest() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1).statementCache(2));
+        pool.execute(connection -> {
+            connection.prepare("A");
+            connection.prepare("B");
+            connection.prepare("C");
+            return null;
+        });
+        StubDriver.StubConnection connection = StubDriver.connections.get(0);
+        assertTrue(connection.statements.get(0).closed);
+        assertFalse(connection.statements.get(1).closed);
+        assertFalse(connection.statements.get(2).closed);
+    }
+
+    @Test
+    public void testDisabledStatementCache() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1).statementCache(0));
+        for (int i = 0; i < 3; i++) {
+            int res = pool.execute(connection -> connection.prepare("UPDATE x").executeUpdate());
+            assertEquals(1, res);
+        }
+        StubDriver.StubConnection connection = StubDriver.connections.get(0);
+        assertEquals(3, connection.statements.size());
+        for (StubDriver.StubStatement statement : connection.statements) {
+            assertTrue(statement.closed); // Closed when the connection is given back
+        }
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(2));
+        for (int i = 0; i < 5; i++) {
+            pool.execute(connection -> null);
+        }
+        assertEquals(1, StubDriver.connections.size());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testBorrowTimesOut() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1).connectionTimeout(0));
+        pool.borrow();
+        pool.borrow();
+    }
+
+    @Test
+    public void testBrokenConnectionIsClosed() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1));
+        try {
+            pool.execute(connection -> {
+                throw new SQLException("Link failure", "08S01");
+            });
+            fail();
+        } catch (SQLException ignored) {
+        }
+        assertTrue(StubDriver.connections.get(0).closed);
+        pool.execute(connection -> null);
+        assertEquals(2, StubDriver.connections.size());
+    }
+
+    @Test
+    public void testQueryErrorKeepsConnection() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create().size(1));
+        try {
+            pool.execute(connection -> {
+                throw new SQLException("Syntax error", "42000");
+            });
+            fail();
+        } catch (SQLException ignored) {
+        }
+        assertFalse(StubDriver.connections.get(0).closed);
+        pool.execute(connection -> null);
+        assertEquals(1, StubDriver.connections.size());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testClosedPool() throws SQLException {
+        ConnectionPool pool = pool(PoolSettings.create());
+        pool.close();
+        pool.borrow();
+    }
+}
@@ -0,0 +1,114 @@
+package xyz.upperlevel.uppercore.database;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DatabaseUtilTest {
+    @Test
+    public void testAddIntegers() {
+        assertEquals(5L, DatabaseUtil.add(2, 3));
+        assertEquals(5L, DatabaseUtil.add(2L, (byte) 3));
+        assertEquals(Long.MAX_VALUE, DatabaseUtil.add(Long.MAX_VALUE - 1, 1));
+    }
+
+    @Test
+    public void testAddDoubles() {
+        assertEquals(2.5, DatabaseUtil.add(2, 0.5));
+        assertEquals(2.5, DatabaseUtil.add(2.0f, 0.5));
+        assertEquals(3.0, DatabaseUtil.add(2.5, 0.5));
+    }
+
+    @Test
+    public void testAddToMissing() {
+        assertEquals(3, DatabaseUtil.add(null, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddToString() {
+        DatabaseUtil.add("3", 1);
+    }
+
+    @Test
+    public void testProject() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("kills", 3);
+        data.put("deaths", 1);
+        assertEquals(Collections.singletonMap("kills", 3), DatabaseUtil.project(data, "kills", "wins"));
+        assertNull(DatabaseUtil.project(null, "kills"));
+        assertTrue(DatabaseUtil.project(null).isEmpty());
+    }
+
+    private static Stream<Map.Entry<String, Map<String, Object>>> documents(int count, AtomicInteger read) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            read.incrementAndGet();
+            return DatabaseUtil.entry(String.valueOf(i), Collections.singletonMap("index", i));
+        });
+    }
+
+    @Test
+    public void testForEachVisitsEveryDocument() {
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        DatabaseUtil.forEach(documents(1000, new AtomicInteger()), (id, data) -> {
+            assertEquals(id, String.valueOf(data.get("index")));
+            visited.add(id);
+            threads.add(Thread.currentThread().getName());
+        }, 4);
+        assertEquals(1000, visited.size());
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("Uppercore Table Worker #"));
+        }
+    }
+
+    @Test
+    public void testForEachRethrowsActionError() {
+        RuntimeException failure = new RuntimeException("Broken document");
+        AtomicInteger read = new AtomicInteger();
+        try {
+            DatabaseUtil.forEach(documents(1_000_000, read), (id, data) -> {
+                if (id.equals("10")) {
+                    throw failure;
+                }
+            }, 2);
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+        }
+        // The reading stops soon after the error
+        assertTrue(String.valueOf(read.get()), read.get() < 1_000_000);
+    }
+
+    @Test
+    public void testForEachRethrowsReadError() {
+        RuntimeException failure = new RuntimeException("Connection lost");
+        Stream<Map.Entry<String, Map<String, Object>>> documents = documents(100, new AtomicInteger())
+                .peek(document -> {
+                    if (document.getKey().equals("50")) {
+                        throw failure;
+                    }
+                });
+        try {
+            DatabaseUtil.forEach(documents, (id, data) -> {
+            }, 2);
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForEachNeedsThreads() {
+        DatabaseUtil.forEach(Stream.empty(), (id, data) -> {
+        }, 0);
+    }
+}
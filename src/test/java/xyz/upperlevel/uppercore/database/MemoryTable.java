@@ -0,0 +1,60 @@
+package xyz.upperlevel.uppercore.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Table} kept in a map, that records the reads and the writes it receives.
+ */
+public class MemoryTable implements Table {
+    public final Map<String, Map<String, Object>> documents = new HashMap<>();
+    public final List<Map<String, Map<String, Object>>> batches = new ArrayList<>();
+    public int reads;
+    public RuntimeException failure; // Thrown by the next sendAll
+
+    @Override
+    public Document document(String id) {
+        return new Document() {
+            @Override
+            public Map<String, Object> ask() {
+                synchronized (MemoryTable.this) {
+                    reads++;
+                    Map<String, Object> data = documents.get(id);
+                    return data == null ? null : new HashMap<>(data);
+                }
+            }
+
+            @Override
+            public void send(Map<String, Object> data) {
+                sendAll(Collections.singletonMap(id, data));
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return Runnable::run;
+            }
+        };
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return Runnable::run;
+    }
+
+    @Override
+    public synchronized void sendAll(Map<String, Map<String, Object>> documents) {
+        if (failure != null) {
+            RuntimeException e = failure;
+            failure = null;
+            throw e;
+        }
+        batches.add(new HashMap<>(documents));
+        for (Map.Entry<String, Map<String, Object>> document : documents.entrySet()) {
+            this.documents.put(document.getKey(), new HashMap<>(document.getValue()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package xyz.upperlevel.uppercore.database;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class QueryTest {
+    private static Map<String, Object> player(String team, Object kills) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("team", team);
+        data.put("kills", kills);
+        return data;
+    }
+
+    @Test
+    public void testMatches() {
+        Query query = Query.create().eq("team", "red").gte("kills", 10);
+        assertTrue(query.matches(player("red", 10)));
+        assertTrue(query.matches(player("red", 10.5)));
+        assertFalse(query.matches(player("red", 9L)));
+        assertFalse(query.matches(player("blue", 20)));
+        assertTrue(Query.create().matches(player("blue", 0)));
+    }
+
+    @Test
+    public void testOperators() {
+        Map<String, Object> data = player("red", 5);
+        assertTrue(Query.create().gt("kills", 4).matches(data));
+        assertFalse(Query.create().gt("kills", 5).matches(data));
+        assertTrue(Query.create().lt("kills", 6).matches(data));
+        assertFalse(Query.create().lt("kills", 5).matches(data));
+        assertTrue(Query.create().lte("kills", 5).matches(data));
+        assertTrue(Query.create().eq("kills", 5.0).matches(data));
+    }
+
+    @Test
+    public void testOtherTypesDontMatch() {
+        assertFalse(Query.create().lt("kills", 10).matches(player("red", "5")));
+        assertFalse(Query.create().lt("kills", 10).matches(player("red", null)));
+        assertFalse(Query.create().eq("team", true).matches(player("red", 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        Query.create().eq("team", new Object());
+    }
+
+    @Test
+    public void testCompare() {
+        assertTrue(Query.compare(1, 2L) < 0);
+        assertTrue(Query.compare(2.5, 2) > 0);
+        assertEquals(0, Query.compare(3, 3.0));
+        // Near the long limits the longs are compared without losing precision
+        assertTrue(Query.compare(Long.MAX_VALUE - 1, Long.MAX_VALUE) < 0);
+        assertTrue(Query.compare("a", "b") < 0);
+        assertTrue(Query.compare(false, true) < 0);
+        // Numbers, then strings, then booleans, then anything else
+        assertTrue(Query.compare(100, "a") < 0);
+        assertTrue(Query.compare("a", false) < 0);
+        assertTrue(Query.compare(true, null) < 0);
+    }
+
+    @Test
+    public void testSortAndLimit() {
+        Query query = Query.create().sort("kills", true).limit(10);
+        assertEquals("kills", query.getSort());
+        assertTrue(query.isDescending());
+        assertTrue(query.hasLimit());
+        assertFalse(Query.create().hasLimit());
+    }
+}
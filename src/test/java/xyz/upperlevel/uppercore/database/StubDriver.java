@@ -0,0 +1,127 @@
+package xyz.upperlevel.uppercore.database;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JDBC driver for the "jdbc:stub:" urls whose connections and statements only remember if they're closed and
+ * the parameters set, the queries return no rows.
+ */
+public class StubDriver {
+    public static final String URL = "jdbc:stub:test";
+
+    public static final List<StubConnection> connections = new ArrayList<>();
+
+    static {
+        try {
+            DriverManager.registerDriver((Driver) Proxy.newProxyInstance(
+                    StubDriver.class.getClassLoader(),
+                    new Class[]{Driver.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "acceptsURL":
+                                return ((String) args[0]).startsWith("jdbc:stub:");
+                            case "connect":
+                                if (!((String) args[0]).startsWith("jdbc:stub:")) {
+                                    return null;
+                                }
+                                StubConnection connection = new StubConnection();
+                                connections.add(connection);
+                                return connection.proxy;
+                            case "getMajorVersion":
+                            case "getMinorVersion":
+                                return 1;
+                            default:
+                                return null;
+                        }
+                    }));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void reset() {
+        connections.clear();
+    }
+
+    public static class StubConnection {
+        public final List<StubStatement> statements = new ArrayList<>();
+        public boolean closed;
+        public final Connection proxy = (Connection) Proxy.newProxyInstance(
+                StubDriver.class.getClassLoader(),
+                new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            StubStatement statement = new StubStatement((String) args[0]);
+                            statements.add(statement);
+                            return statement.proxy;
+                        case "createStatement":
+                            StubStatement created = new StubStatement(null);
+                            statements.add(created);
+                            return created.proxy;
+                        case "close":
+                            closed = true;
+                            return null;
+                        case "isClosed":
+                            return closed;
+                        case "isValid":
+                            return !closed;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    public static class StubStatement {
+        public final String sql;
+        public final Map<Integer, Object> parameters = new HashMap<>();
+        public final List<String> executed = new ArrayList<>(); // The sql run by a plain statement
+        public boolean closed;
+        public final PreparedStatement proxy;
+
+        private StubStatement(String sql) {
+            this.sql = sql;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StubDriver.class.getClassLoader(),
+                    new Class[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                closed = true;
+                                return null;
+                            case "isClosed":
+                                return closed;
+                            case "executeUpdate":
+                                if (closed) {
+                                    throw new SQLException("Statement closed");
+                                }
+                                return 1;
+                            case "execute":
+                                executed.add((String) args[0]);
+                                return false;
+                            case "executeQuery":
+                                return Proxy.newProxyInstance(
+                                        StubDriver.class.getClassLoader(),
+                                        new Class[]{ResultSet.class},
+                                        (result, resultMethod, resultArgs) -> resultMethod.getName().equals("next") ? false : null
+                                );
+                            default:
+                                if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                                    parameters.put((Integer) args[0], args[1]);
+                                }
+                                return null;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.upperlevel.uppercore.database.impl;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import xyz.upperlevel.uppercore.database.Query;
+import xyz.upperlevel.uppercore.database.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FlatfileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Table table;
+
+    @Before
+    public void setUp() {
+        table = new Flatfile().new DatabaseImpl(folder.getRoot()).table("players");
+        send("alex", "red", 10);
+        send("bob", "red", 30);
+        send("carl", "blue", 20);
+        send("dan", "red", 20);
+        Map<String, Object> noKills = new HashMap<>();
+        noKills.put("team", "red");
+        table.document("eve").send(noKills);
+    }
+
+    private void send(String id, String team, int kills) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("team", team);
+        data.put("kills", kills);
+        table.document(id).send(data);
+    }
+
+    private void checkQueries() {
+        Query top = Query.create().eq("team", "red").gte("kills", 20).sort("kills", true);
+        assertEquals(Arrays.asList("bob", "dan"), new ArrayList<>(table.find(top).keySet()));
+        assertEquals(Arrays.asList("bob"), new ArrayList<>(table.find(top.limit(1)).keySet()));
+        assertEquals(2, table.count(Query.create().eq("kills", 20)));
+        assertEquals(5, table.count(Query.create()));
+        assertEquals(1, table.count(Query.create().lt("kills", 20).limit(5)));
+        // The documents without the field come first
+        Query all = Query.create().sort("kills", false);
+        assertEquals(Arrays.asList("eve", "alex"), new ArrayList<>(table.find(all.limit(2)).keySet()));
+    }
+
+    @Test
+    public void testFind() {
+        checkQueries();
+    }
+
+    @Test
+    public void testFindIndexed() {
+        table.ensureIndex("kills");
+        table.ensureIndex("team");
+        checkQueries();
+    }
+
+    @Test
+    public void testIndexFollowsWrites() {
+        table.ensureIndex("kills");
+        send("alex", "red", 40);
+        table.document("bob").unset("kills");
+        Query top = Query.create().gt("kills", 15).sort("kills", true);
+        assertEquals(Arrays.asList("alex", "carl", "dan"), new ArrayList<>(table.find(top).keySet()));
+        assertEquals(3, table.count(Query.create().gt("kills", 15)));
+    }
+
+    @Test
+    public void testEmptyFilesAreSkipped() {
+        table.document("ghost"); // Creates an empty file
+        assertEquals(5, table.count(Query.create()));
+        assertFalse(table.find(Query.create()).containsKey("ghost"));
+    }
+}
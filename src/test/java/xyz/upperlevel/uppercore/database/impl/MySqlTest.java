@@ -0,0 +1,93 @@
+package xyz.upperlevel.uppercore.database.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.upperlevel.uppercore.database.ConnectionPool;
+import xyz.upperlevel.uppercore.database.PoolSettings;
+import xyz.upperlevel.uppercore.database.Query;
+import xyz.upperlevel.uppercore.database.StubDriver;
+import xyz.upperlevel.uppercore.database.Table;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MySqlTest {
+    private ConnectionPool pool;
+    private Table table;
+
+    @Before
+    public void setUp() {
+        StubDriver.reset();
+        pool = new ConnectionPool(StubDriver.URL, "user", "password", PoolSettings.create().size(1));
+        table = new MySql().new DatabaseImpl(pool).table("players");
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    // The last statement prepared
+    private StubDriver.StubStatement last() {
+        List<StubDriver.StubStatement> statements = StubDriver.connections.get(0).statements;
+        return statements.get(statements.size() - 1);
+    }
+
+    @Test
+    public void testIntegerIncrementStaysInteger() {
+        table.document("alex").increment("kills", 2);
+        StubDriver.StubStatement statement = last();
+        assertTrue(statement.sql, statement.sql.contains("AS SIGNED"));
+        assertEquals("alex", statement.parameters.get(1));
+        assertEquals("{\"kills\":2}", statement.parameters.get(2));
+        assertEquals("$.\"kills\"", statement.parameters.get(3));
+        assertEquals(2L, statement.parameters.get(6));
+        assertEquals(2L, statement.parameters.get(8));
+    }
+
+    @Test
+    public void testDoubleIncrement() {
+        table.document("alex").increment("ratio", 0.5);
+        StubDriver.StubStatement statement = last();
+        assertFalse(statement.sql, statement.sql.contains("AS SIGNED"));
+        assertEquals("$.\"ratio\"", statement.parameters.get(3));
+        assertEquals(0.5, statement.parameters.get(5));
+    }
+
+    @Test
+    public void testEnsureIndexQuotesThePath() {
+        table.ensureIndex("1v1_wins");
+        List<String> executed = last().executed;
+        assertEquals(1, executed.size());
+        assertTrue(executed.get(0), executed.get(0).contains("JSON_EXTRACT(value, '$.\"1v1_wins\"')"));
+        assertTrue(executed.get(0), executed.get(0).contains("ADD INDEX `idx_1v1_wins`"));
+        table.ensureIndex("1v1_wins");
+        assertEquals(1, executed.size()); // Already created
+    }
+
+    @Test
+    public void testStringSortOnIndexedField() {
+        table.ensureIndex("name");
+        table.find(Query.create().sort("name", false));
+        StubDriver.StubStatement statement = last();
+        assertTrue(statement.sql, statement.sql.contains("ORDER BY JSON_EXTRACT(value, ?) ASC"));
+        assertFalse(statement.sql, statement.sql.contains("ORDER BY `idx_name`"));
+        assertEquals("$.\"name\"", statement.parameters.get(1));
+    }
+
+    @Test
+    public void testNumberSortOnIndexedField() {
+        table.ensureIndex("kills");
+        table.find(Query.create().gt("kills", 10).sort("kills", true));
+        StubDriver.StubStatement statement = last();
+        assertTrue(statement.sql, statement.sql.contains("WHERE `idx_kills` > ?"));
+        assertTrue(statement.sql, statement.sql.contains("ORDER BY `idx_kills` DESC"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnsureIndexChecksTheField() {
+        table.ensureIndex("wins') OR ('");
+    }
+}
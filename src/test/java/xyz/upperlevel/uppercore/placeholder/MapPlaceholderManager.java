@@ -0,0 +1,69 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.plugin.Plugin;
+import xyz.upperlevel.uppercore.placeholder.managers.BasePlaceholderManager;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link PlaceholderManager} that keeps the placeholders in a map, without Bukkit or PlaceholderAPI.
+ */
+public class MapPlaceholderManager extends BasePlaceholderManager {
+    private final Map<String, Placeholder> placeholders = new HashMap<>();
+    private final Registry registry = new Registry();
+
+    @Override
+    protected Placeholder find(String id) {
+        return placeholders.get(id);
+    }
+
+    @Override
+    public PlaceholderRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void register(Plugin plugin, Placeholder placeholder) {
+        placeholders.put(placeholder.getId(), placeholder);
+        onRegister(plugin, placeholder);
+    }
+
+    /**
+     * Makes this the manager used by {@link PlaceholderUtil}, as done on plugin enable.
+     */
+    public MapPlaceholderManager install() {
+        try {
+            Field field = PlaceholderUtil.class.getDeclaredField("manager");
+            field.setAccessible(true);
+            field.set(null, this);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    private class Registry implements PlaceholderRegistry<Registry> {
+        @Override
+        public PlaceholderRegistry getParent() {
+            return null;
+        }
+
+        @Override
+        public void setParent(PlaceholderRegistry parent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Placeholder getLocal(String key) {
+            return placeholders.get(key);
+        }
+
+        @Override
+        public Registry set(Placeholder placeholder) {
+            register(null, placeholder);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class PlaceholderScannerTest {
+    private static final Pattern PATTERN = Pattern.compile("%([^%]+)%");
+
+    @Test
+    public void testFind() {
+        assertEquals(0, PlaceholderScanner.find("%kills%", 0));
+        assertEquals(6, PlaceholderScanner.find("Kills %kills%", 0));
+        assertEquals(-1, PlaceholderScanner.find("Kills %kills%", 7));
+        assertEquals(-1, PlaceholderScanner.find("100%", 0));
+        assertEquals(-1, PlaceholderScanner.find("%kills", 0));
+        assertEquals(-1, PlaceholderScanner.find("", 0));
+    }
+
+    @Test
+    public void testDoublePercent() {
+        assertEquals(-1, PlaceholderScanner.find("%%", 0));
+        assertEquals(1, PlaceholderScanner.find("%%kills%", 0));
+        assertFalse(PlaceholderScanner.hasPlaceholders("100%% sure"));
+        assertTrue(PlaceholderScanner.hasPlaceholders("100%%kills%"));
+    }
+
+    @Test
+    public void testSameTokensOfThePattern() {
+        String[] strings = {
+                "%a%", "%a%%b%", "%a%b%c%", "%%a%%", "a%%%b", "%%%", "100% of %kills% %", "%a% %b %c%", "%%%%a%"
+        };
+        for (String str : strings) {
+            assertEquals(str, regexTokens(str), scannerTokens(str));
+        }
+    }
+
+    private static List<String> regexTokens(String str) {
+        List<String> res = new ArrayList<>();
+        Matcher matcher = PATTERN.matcher(str);
+        while (matcher.find()) {
+            res.add(matcher.group(1));
+        }
+        return res;
+    }
+
+    private static List<String> scannerTokens(String str) {
+        List<String> res = new ArrayList<>();
+        int start = PlaceholderScanner.find(str, 0);
+        while (start >= 0) {
+            int end = str.indexOf('%', start + 1);
+            res.add(str.substring(start + 1, end));
+            start = PlaceholderScanner.find(str, end + 1);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,77 @@
+package xyz.upperlevel.uppercore.placeholder;
+
+import org.bukkit.entity.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PlaceholderTemplateTest {
+    private final MapPlaceholderManager manager = new MapPlaceholderManager().install();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        manager.register(null, Placeholder.of("kills", (Player player) -> String.valueOf(calls.incrementAndGet())));
+        manager.register(null, Placeholder.of("name", (Player player) -> "Steve"));
+        // Resolves another template while the outer one is being built
+        manager.register(null, Placeholder.of("nested", (Player player) ->
+                PlaceholderTemplate.compile("<%name% %name%>").resolve(player, null)));
+    }
+
+    @Test
+    public void testCompile() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("Hi %name%, %kills% kills %");
+        assertTrue(template.hasPlaceholders());
+        assertEquals(Arrays.asList("name", "kills"), template.getTokens());
+        assertNull(template.getSingleToken());
+        assertEquals("Hi %name%, %kills% kills %", template.toString());
+    }
+
+    @Test
+    public void testNoPlaceholders() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("100%% sure");
+        assertFalse(template.hasPlaceholders());
+        assertEquals(Collections.emptyList(), template.getTokens());
+        assertEquals("100%% sure", template.resolve(null, null));
+    }
+
+    @Test
+    public void testSingleToken() {
+        assertEquals("kills", PlaceholderTemplate.compile("%kills%").getSingleToken());
+        assertNull(PlaceholderTemplate.compile(" %kills%").getSingleToken());
+        assertEquals("Steve", PlaceholderTemplate.compile("%name%").resolve(null, null));
+        assertEquals("%unknown%", PlaceholderTemplate.compile("%unknown%").resolve(null, null));
+    }
+
+    @Test
+    public void testResolve() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("Hi %name%, %unknown% %%name%");
+        assertEquals("Hi Steve, %unknown% %Steve", template.resolve(null, null));
+        // The reused buffer doesn't keep the previous result
+        assertEquals("Hi Steve, %unknown% %Steve", template.resolve(null, manager.getRegistry()));
+    }
+
+    @Test
+    public void testNestedResolve() {
+        assertEquals("[<Steve Steve>] Steve", PlaceholderTemplate.compile("[%nested%] %name%").resolve(null, null));
+    }
+
+    @Test
+    public void testResolvedTokensAreShared() {
+        Map<String, String> resolved = new HashMap<>();
+        assertEquals("1 1", PlaceholderTemplate.compile("%kills% %kills%").resolve(null, null, resolved));
+        assertEquals("Kills: 1 %unknown%", PlaceholderTemplate.compile("Kills: %kills% %unknown%").resolve(null, null, resolved));
+        assertEquals(1, calls.get());
+        assertTrue(resolved.containsKey("unknown"));
+        assertNull(resolved.get("unknown"));
+
+        assertEquals("2 3", PlaceholderTemplate.compile("%kills% %kills%").resolve(null, null));
+    }
+}
@@ -0,0 +1,79 @@
+package xyz.upperlevel.uppercore.placeholder.managers;
+
+import org.bukkit.entity.Player;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.upperlevel.uppercore.placeholder.MapPlaceholderManager;
+import xyz.upperlevel.uppercore.placeholder.Placeholder;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderReader;
+import xyz.upperlevel.uppercore.placeholder.PlaceholderValue;
+import xyz.upperlevel.uppercore.placeholder.SimplePlaceholderRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BasePlaceholderManagerTest {
+    private final MapPlaceholderManager manager = new MapPlaceholderManager().install();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        manager.register(null, Placeholder.of("kills", (Player player, String arg) -> arg.isEmpty() ? "7" : arg));
+        manager.register(null, Placeholder.of("broken", (Player player, String arg) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Broken placeholder");
+        }));
+    }
+
+    @Test
+    public void testApply() {
+        assertEquals("7 kills, 3", manager.apply(null, "%kills% kills, %kills_3%"));
+        assertEquals("%unknown% 100%", manager.apply(null, "%unknown% 100%"));
+    }
+
+    @Test
+    public void testSplitTokenErrorLeavesTheToken() {
+        assertEquals("%broken_arg%", manager.apply(null, "%broken_arg%"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testReaderFindsTheArgument() {
+        assertEquals(Integer.valueOf(7), manager.single(null, "kills", manager.getRegistry(), PlaceholderReader.INT));
+        assertEquals(Integer.valueOf(12), manager.single(null, "kills_12", manager.getRegistry(), PlaceholderReader.INT));
+        assertNull(manager.single(null, "unknown_12", manager.getRegistry(), PlaceholderReader.INT));
+    }
+
+    @Test
+    public void testReaderThrowsSplitTokenError() {
+        try {
+            manager.single(null, "broken_arg", manager.getRegistry(), PlaceholderReader.INT);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Broken placeholder", e.getMessage());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testLocalPlaceholdersFirst() {
+        SimplePlaceholderRegistry local = new SimplePlaceholderRegistry(manager.getRegistry());
+        local.set(Placeholder.of("kills", "local"));
+        assertEquals("local", manager.apply(null, "%kills%", local));
+        assertEquals("local", manager.apply(null, "%kills_3%", local));
+    }
+
+    @Test
+    public void testValueFailsOnce() {
+        List<String> errors = new ArrayList<>();
+        PlaceholderValue<Integer> value = new PlaceholderValue.SimplePlaceholderValue<>(
+                "%broken_arg%", PlaceholderReader.INT, (text, e) -> errors.add(text), -1
+        );
+        assertEquals(Integer.valueOf(-1), value.resolve(null));
+        assertEquals(1, calls.get());
+        assertEquals(1, errors.size());
+    }
+}